@@ -0,0 +1,59 @@
+package hello.datajpa.benchmark;
+
+import hello.datajpa.entity.Member;
+import hello.datajpa.repository.MemberRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+    auditing 값을 트랜잭션마다 한번 계산(true) vs 저장, 수정마다 계산(false, UUID.randomUUID + LocalDateTime.now)
+    op 하나가 batchSize 명을 한 트랜잭션으로 저장한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(4)
+public class AuditingBenchmark {
+    @Param({"true", "false"})
+    boolean perTransaction;
+
+    @Param({"1000"})
+    int batchSize;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("datajpa.auditing.per-transaction=" + perTransaction);
+        memberRepository = context.getBean(MemberRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int saveAllBatched() {
+        List<Member> members = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            members.add(new Member("audit" + i, i % BenchmarkApplication.AGE_RANGE, null));
+        }
+        return memberRepository.saveAllBatched(members, batchSize);
+    }
+}
@@ -0,0 +1,80 @@
+package hello.datajpa.benchmark;
+
+import hello.datajpa.DatajpaApplication;
+import hello.datajpa.entity.Member;
+import hello.datajpa.entity.Team;
+import hello.datajpa.repository.MemberRepository;
+import hello.datajpa.repository.TeamRepository;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+    벤치마크용 스프링 컨텍스트
+    trial 마다 한번만 띄우고 메모리 H2 를 사용한다. (sql 로그, p6spy 는 끈다)
+ */
+public abstract class BenchmarkApplication {
+    public static final int TEAM_COUNT = 100;
+    public static final int AGE_RANGE = 100;
+    private static final int SEED_CHUNK_SIZE = 1000;
+
+    public static ConfigurableApplicationContext start(String... properties) {
+        return start(WebApplicationType.NONE, properties);
+    }
+
+    /*
+        톰캣까지 띄운다. (랜덤 포트, local.server.port)
+     */
+    public static ConfigurableApplicationContext startWeb(String... properties) {
+        List<String> webProperties = new ArrayList<>(List.of(properties));
+        webProperties.add("server.port=0");
+        return start(WebApplicationType.SERVLET, webProperties.toArray(new String[0]));
+    }
+
+    private static ConfigurableApplicationContext start(WebApplicationType webApplicationType, String... properties) {
+        List<String> defaults = new ArrayList<>(List.of(
+                "spring.datasource.url=jdbc:h2:mem:bench-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1",
+                "spring.jpa.properties.hibernate.format_sql=false",
+                "decorator.datasource.enabled=false",
+                "logging.level.root=warn",
+                "logging.level.org.hibernate.SQL=warn",
+                "spring.main.banner-mode=off"));
+        defaults.addAll(List.of(properties));
+
+        //application.yaml 보다 우선하도록 커맨드라인 인자로 넘긴다.
+        String[] args = defaults.stream().map(property -> "--" + property).toArray(String[]::new);
+        return new SpringApplicationBuilder(DatajpaApplication.class)
+                .web(webApplicationType)
+                .run(args);
+    }
+
+    /*
+        TEAM_COUNT 개의 팀에 size 명의 회원을 나눠서 저장한다.
+        username = member{i}, age = i % AGE_RANGE
+     */
+    public static void seed(ConfigurableApplicationContext context, int size) {
+        TeamRepository teamRepository = context.getBean(TeamRepository.class);
+        MemberRepository memberRepository = context.getBean(MemberRepository.class);
+
+        List<Team> teams = new ArrayList<>();
+        for (int i = 0; i < TEAM_COUNT; i++) {
+            teams.add(new Team("team" + i));
+        }
+        teamRepository.saveAll(teams);
+
+        List<Member> chunk = new ArrayList<>(SEED_CHUNK_SIZE);
+        for (int i = 0; i < size; i++) {
+            Member member = new Member("member" + i, i % AGE_RANGE, null);
+            member.setTeam(teams.get(i % TEAM_COUNT));
+            chunk.add(member);
+            if (chunk.size() == SEED_CHUNK_SIZE) {
+                memberRepository.saveAllBatched(chunk, SEED_CHUNK_SIZE);
+                chunk.clear();
+            }
+        }
+        memberRepository.saveAllBatched(chunk, SEED_CHUNK_SIZE);
+    }
+}
@@ -0,0 +1,75 @@
+package hello.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+    /members 를 동기(톰캣 스레드) vs 비동기(/async/members, jdbcTaskExecutor) 로 부하를 준다.
+    /members/{id} 는 두 컨트롤러 모두 MemberBatchLoader 의 CompletableFuture 를 돌려주는 비동기라 비교하지 않는다.
+    Throughput 은 초당 요청 수, SampleTime 은 p50, p99 ... 를 보여준다.
+    톰캣 스레드 수(tomcatThreads)를 줄여서 스레드가 병목일 때의 차이를 볼 수 있다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(64)
+public class ControllerLoadBenchmark {
+    @Param({"/members", "/async/members"})
+    String basePath;
+
+    @Param({"20"})
+    int tomcatThreads;
+
+    @Param({"10000"})
+    int datasetSize;
+
+    ConfigurableApplicationContext context;
+    HttpClient httpClient;
+    String baseUrl;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.startWeb("server.tomcat.threads.max=" + tomcatThreads);
+        BenchmarkApplication.seed(context, datasetSize);
+
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + basePath;
+        httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int list() throws IOException, InterruptedException {
+        int page = ThreadLocalRandom.current().nextInt(100);
+        return get(baseUrl + "?page=" + page + "&size=20");
+    }
+
+    private int get(String url) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).GET().build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
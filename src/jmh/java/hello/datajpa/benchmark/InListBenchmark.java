@@ -0,0 +1,90 @@
+package hello.datajpa.benchmark;
+
+import hello.datajpa.entity.Member;
+import hello.datajpa.repository.MemberRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+    findMembersByUsernames 조회 방법별 비교 (username 10 ~ 100,000 개)
+    single: in 쿼리 한번 (padding 만)
+    chunked: 512 개씩 나눠서 in 쿼리
+    tempTable: 임시 테이블 조인
+    auto: application.yaml 기준 값 (512 개 이하 single, 8192 개 이하 chunked, 그 이상 tempTable)
+
+    ./gradlew jmh -PjmhIncludes=InListBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class InListBenchmark {
+    @Param({"100000"})
+    int datasetSize;
+
+    @Param({"10", "100", "1000", "10000", "100000"})
+    int keyCount;
+
+    @Param({"single", "chunked", "tempTable", "auto"})
+    String strategy;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    List<String> usernames;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(properties(strategy));
+        BenchmarkApplication.seed(context, datasetSize);
+        memberRepository = context.getBean(MemberRepository.class);
+    }
+
+    private static String[] properties(String strategy) {
+        switch (strategy) {
+            case "single":
+                return new String[]{"datajpa.in-clause.chunk-size=" + Integer.MAX_VALUE,
+                        "datajpa.in-clause.temp-table-threshold=" + Integer.MAX_VALUE};
+            case "chunked":
+                return new String[]{"datajpa.in-clause.temp-table-threshold=" + Integer.MAX_VALUE};
+            case "tempTable":
+                return new String[]{"datajpa.in-clause.temp-table-threshold=0"};
+            default:
+                return new String[0];
+        }
+    }
+
+    /*
+        10% 는 없는 username
+     */
+    @Setup(Level.Iteration)
+    public void prepareUsernames() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        usernames = new ArrayList<>(keyCount);
+        for (int i = 0; i < keyCount; i++) {
+            usernames.add("member" + random.nextInt(datasetSize + datasetSize / 10));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Member> findMembersByUsernames() {
+        return memberRepository.findMembersByUsernames(usernames);
+    }
+}
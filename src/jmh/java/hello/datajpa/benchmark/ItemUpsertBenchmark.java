@@ -0,0 +1,103 @@
+package hello.datajpa.benchmark;
+
+import hello.datajpa.entity.Item;
+import hello.datajpa.repository.ItemRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+    itemCount 건을 chunkSize 씩 저장하는 시간 (op 한번 = 전체)
+    target=new: iteration 마다 새 id
+    target=existing: trial 시작할 때 미리 저장해둔 id (저장할 때 createdDate 가 채워져서 isNew 가 false)
+
+    saveAll: chunk 마다 트랜잭션
+        new 면 persist + jdbc 배치 (select 없음)
+        existing 이면 merge 라서 건마다 select 후 바뀐 값이 있으면 update (여기서는 값이 같아서 select 만)
+    upsert: merge 문 jdbc 배치 (있으면 수정, 없으면 저장)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class ItemUpsertBenchmark {
+    @Param({"1000000"})
+    int itemCount;
+
+    @Param({"1000"})
+    int chunkSize;
+
+    @Param({"new", "existing"})
+    String target;
+
+    ConfigurableApplicationContext context;
+    ItemRepository itemRepository;
+    TransactionTemplate transactionTemplate;
+    int iteration;
+    List<Item> existingItems;
+    List<Item> targetItems;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        itemRepository = context.getBean(ItemRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        if ("existing".equals(target)) {
+            existingItems = items("item-existing-");
+            saveInChunks(existingItems);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void prepareItems() {
+        targetItems = "existing".equals(target) ? existingItems : items("item-" + iteration++ + "-");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private List<Item> items(String prefix) {
+        List<Item> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            items.add(new Item(prefix + i, "name" + i));
+        }
+        return items;
+    }
+
+    private void saveInChunks(List<Item> items) {
+        for (int from = 0; from < itemCount; from += chunkSize) {
+            List<Item> chunk = items.subList(from, Math.min(from + chunkSize, itemCount));
+            transactionTemplate.executeWithoutResult(status -> itemRepository.saveAll(chunk));
+        }
+    }
+
+    @Benchmark
+    public int saveAll() {
+        saveInChunks(targetItems);
+        return itemCount;
+    }
+
+    @Benchmark
+    public int upsert() {
+        return itemRepository.upsertAll(targetItems, chunkSize);
+    }
+}
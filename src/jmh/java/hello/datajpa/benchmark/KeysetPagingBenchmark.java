@@ -0,0 +1,113 @@
+package hello.datajpa.benchmark;
+
+import hello.datajpa.entity.Member;
+import hello.datajpa.repository.MemberRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+    offset 페이징(limit/offset + count) vs keyset 페이징(id > lastId limit n+1)
+    첫 페이지와 마지막 페이지를 비교한다.
+
+    findAll(Pageable) 은 @EntityGraph(team) 로 팀을 조인하므로 쓰지 않는다.
+    offset 쪽도 keyset 과 같은 select m from Member m order by m.id 로 조회하고 count 쿼리만 더한다.
+
+    10M 건은 메모리를 많이 쓰기 때문에 기본 파라미터에서 뺐다.
+    java -jar build/libs/datajpa-0.0.1-SNAPSHOT-jmh.jar KeysetPagingBenchmark -p datasetSize=10000000
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class KeysetPagingBenchmark {
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"10000", "1000000"})
+    int datasetSize;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    EntityManager sharedEm;
+    TransactionTemplate readOnlyTransactionTemplate;
+    long firstId;
+    long lastPageId;
+    int lastPage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.seed(context, datasetSize);
+
+        memberRepository = context.getBean(MemberRepository.class);
+        sharedEm = SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+        readOnlyTransactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransactionTemplate.setReadOnly(true);
+
+        EntityManager em = context.getBean(EntityManagerFactory.class).createEntityManager();
+        try {
+            firstId = em.createQuery("select min(m.id) from Member m", Long.class).getSingleResult();
+            long maxId = em.createQuery("select max(m.id) from Member m", Long.class).getSingleResult();
+            lastPageId = maxId - PAGE_SIZE;
+        } finally {
+            em.close();
+        }
+        lastPage = datasetSize / PAGE_SIZE - 1;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<Member> offsetFirstPage() {
+        return readOnlyTransactionTemplate.execute(status -> offsetPage(PageRequest.of(0, PAGE_SIZE)));
+    }
+
+    @Benchmark
+    public Page<Member> offsetLastPage() {
+        return readOnlyTransactionTemplate.execute(status -> offsetPage(PageRequest.of(lastPage, PAGE_SIZE)));
+    }
+
+    @Benchmark
+    public Slice<Member> keysetFirstPage() {
+        return readOnlyTransactionTemplate.execute(status ->
+                memberRepository.findMembersAfter(firstId - 1, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public Slice<Member> keysetLastPage() {
+        return readOnlyTransactionTemplate.execute(status ->
+                memberRepository.findMembersAfter(lastPageId, PAGE_SIZE));
+    }
+
+    private Page<Member> offsetPage(Pageable pageable) {
+        List<Member> content = sharedEm.createQuery("select m from Member m order by m.id", Member.class)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+        long total = sharedEm.createQuery("select count(m) from Member m", Long.class).getSingleResult();
+        return new PageImpl<>(content, pageable, total);
+    }
+}
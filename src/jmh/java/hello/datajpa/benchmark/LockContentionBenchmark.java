@@ -0,0 +1,69 @@
+package hello.datajpa.benchmark;
+
+import hello.datajpa.entity.Member;
+import hello.datajpa.repository.MemberRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+    같은 회원 한명을 스레드 8개가 동시에 수정할 때
+    비관적 락(findLockById) vs 낙관적 락(@Version + 재시도)
+    SampleTime 이라 평균과 함께 p0.99 등 백분위가 나온다.
+
+    ./gradlew jmh -PjmhIncludes=LockContentionBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(8)
+public class LockContentionBenchmark {
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    TransactionTemplate transactionTemplate;
+    Long memberId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(
+                "datajpa.optimistic-lock.max-attempts=100",
+                "datajpa.optimistic-lock.initial-backoff=1ms",
+                "datajpa.optimistic-lock.max-backoff=20ms");
+        memberRepository = context.getBean(MemberRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        memberId = memberRepository.save(new Member("contended", 0, null)).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void pessimisticLock() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Member locked = memberRepository.findLockById(memberId);
+            locked.setAge(locked.getAge() + 1);
+        });
+    }
+
+    @Benchmark
+    public void optimisticLock() {
+        memberRepository.updateWithRetry(memberId, member -> {
+            member.setAge(member.getAge() + 1);
+            return null;
+        });
+    }
+}
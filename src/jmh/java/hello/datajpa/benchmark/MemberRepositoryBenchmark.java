@@ -0,0 +1,144 @@
+package hello.datajpa.benchmark;
+
+import hello.datajpa.entity.Member;
+import hello.datajpa.repository.MemberJpaRepository;
+import hello.datajpa.repository.MemberRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+    순수 JPA 리포지토리(MemberJpaRepository) vs 스프링 데이터 JPA(MemberRepository)
+    각 호출은 자기 트랜잭션(영속성 컨텍스트)에서 실행한다.
+
+    ./gradlew jmh -PjmhIncludes=MemberRepositoryBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MemberRepositoryBenchmark {
+    @Param({"1000", "10000"})
+    int datasetSize;
+
+    ConfigurableApplicationContext context;
+    MemberJpaRepository memberJpaRepository;
+    MemberRepository memberRepository;
+    TransactionTemplate transactionTemplate;
+    TransactionTemplate readOnlyTransactionTemplate;
+    long minId;
+    long maxId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.seed(context, datasetSize);
+
+        memberJpaRepository = context.getBean(MemberJpaRepository.class);
+        memberRepository = context.getBean(MemberRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnlyTransactionTemplate.setReadOnly(true);
+
+        EntityManager em = context.getBean(EntityManagerFactory.class).createEntityManager();
+        try {
+            Object[] range = em.createQuery("select min(m.id), max(m.id) from Member m", Object[].class).getSingleResult();
+            minId = (Long) range[0];
+            maxId = (Long) range[1];
+        } finally {
+            em.close();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(minId, maxId + 1);
+    }
+
+    private String randomUsername() {
+        return "member" + ThreadLocalRandom.current().nextInt(datasetSize);
+    }
+
+    private int randomAge() {
+        return ThreadLocalRandom.current().nextInt(BenchmarkApplication.AGE_RANGE);
+    }
+
+    @Benchmark
+    public Member saveJpa() {
+        return transactionTemplate.execute(status -> memberJpaRepository.save(new Member("saved", 20, null)));
+    }
+
+    @Benchmark
+    public Member saveDataJpa() {
+        return transactionTemplate.execute(status -> memberRepository.save(new Member("saved", 20, null)));
+    }
+
+    @Benchmark
+    public Member findByIdJpa() {
+        return readOnlyTransactionTemplate.execute(status -> memberJpaRepository.findById(randomId()));
+    }
+
+    @Benchmark
+    public Member findByIdDataJpa() {
+        return readOnlyTransactionTemplate.execute(status -> memberRepository.findById(randomId()).orElse(null));
+    }
+
+    @Benchmark
+    public List<Member> findByUsernameAndAgeGreaterThanJpa() {
+        return readOnlyTransactionTemplate.execute(status ->
+                memberJpaRepository.findByUsernameAndAgeGreaterThan(randomUsername(), 10));
+    }
+
+    @Benchmark
+    public List<Member> findByUsernameAndAgeGreaterThanDataJpa() {
+        return readOnlyTransactionTemplate.execute(status ->
+                memberRepository.findByUsernameAndAgeGreaterThan(randomUsername(), 10));
+    }
+
+    @Benchmark
+    public Page<Member> pagedFindByAge() {
+        return readOnlyTransactionTemplate.execute(status ->
+                memberRepository.findByAge(randomAge(), PageRequest.of(0, 20)));
+    }
+
+    @Benchmark
+    public List<Member> fetchJoin() {
+        return readOnlyTransactionTemplate.execute(status -> memberRepository.findMemberFetchJoin());
+    }
+
+    @Benchmark
+    public List<Member> entityGraph() {
+        return readOnlyTransactionTemplate.execute(status -> memberRepository.findMemberFetchJoin2());
+    }
+
+    @Benchmark
+    public Integer bulkAgePlusJpa() {
+        return transactionTemplate.execute(status -> memberJpaRepository.bulkAgePlus(0));
+    }
+
+    @Benchmark
+    public Integer bulkAgePlusDataJpa() {
+        return transactionTemplate.execute(status -> memberRepository.bulkAgePlus());
+    }
+}
@@ -0,0 +1,84 @@
+package hello.datajpa.benchmark;
+
+import hello.datajpa.entity.Member;
+import hello.datajpa.support.MemberPartitionProcessor;
+import hello.datajpa.support.PartitionResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/*
+    전체 회원 나이 + 1 (자바 로직)
+    singleThread: EntityManager 하나로 전체를 조회해서 처리하는 기존 방식
+    partitioned: id 범위를 chunkSize 씩 parallelism 개 스레드로 처리 (parallelism 1 이면 chunk 커밋만의 효과)
+
+    ./gradlew jmh -PjmhIncludes=PartitionProcessingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class PartitionProcessingBenchmark {
+    private static final Consumer<Member> AGE_PLUS = member -> member.setAge(member.getAge() + 1);
+
+    @Param({"100000"})
+    int datasetSize;
+
+    @Param({"1", "2", "4", "8"})
+    int parallelism;
+
+    @Param({"1000"})
+    int chunkSize;
+
+    ConfigurableApplicationContext context;
+    MemberPartitionProcessor memberPartitionProcessor;
+    EntityManager em;
+    TransactionTemplate transactionTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.seed(context, datasetSize);
+
+        memberPartitionProcessor = context.getBean(MemberPartitionProcessor.class);
+        em = context.getBean(EntityManager.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int singleThread() {
+        return transactionTemplate.execute(status -> {
+            List<Member> members = em.createQuery("select m from Member m", Member.class).getResultList();
+            members.forEach(AGE_PLUS);
+            return members.size();
+        });
+    }
+
+    @Benchmark
+    public PartitionResult partitioned() {
+        return memberPartitionProcessor.process(parallelism, chunkSize, AGE_PLUS);
+    }
+}
@@ -0,0 +1,83 @@
+package hello.datajpa.benchmark;
+
+import hello.datajpa.entity.Member;
+import hello.datajpa.repository.MemberRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+    동시 요청(스레드 32개)은 고정하고 풀 크기만 바꿔가며 처리량이 더 이상 늘지 않는 지점을 찾는다.
+    prod 프로파일(auto-commit 끔)로 띄우고,
+    trial 이 끝나면 커넥션 획득 대기 시간(hikaricp.connections.acquire)을 같이 출력한다.
+
+    ./gradlew jmh -PjmhIncludes=PoolSizeBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(32)
+public class PoolSizeBenchmark {
+    @Param({"10000"})
+    int datasetSize;
+
+    @Param({"2", "4", "8", "16", "32"})
+    int poolSize;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    TransactionTemplate readOnlyTransactionTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(
+                "spring.profiles.active=prod",
+                "spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                "spring.datasource.hikari.connection-timeout=30000");
+        BenchmarkApplication.seed(context, datasetSize);
+
+        memberRepository = context.getBean(MemberRepository.class);
+        readOnlyTransactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Timer acquire = context.getBean(MeterRegistry.class).find("hikaricp.connections.acquire").timer();
+        if (acquire != null) {
+            System.out.printf("%npoolSize=%d acquire mean=%.3fms max=%.3fms%n", poolSize,
+                    acquire.mean(TimeUnit.MILLISECONDS), acquire.max(TimeUnit.MILLISECONDS));
+        }
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Member> findById() {
+        return memberRepository.findById(ThreadLocalRandom.current().nextLong(1, datasetSize + 1));
+    }
+
+    @Benchmark
+    public Slice<Member> findSliceByAge() {
+        return readOnlyTransactionTemplate.execute(status -> memberRepository.findSliceByAge(
+                ThreadLocalRandom.current().nextInt(BenchmarkApplication.AGE_RANGE), PageRequest.of(0, 20)));
+    }
+}
@@ -0,0 +1,89 @@
+package hello.datajpa.benchmark;
+
+import hello.datajpa.dto.MemberColumns;
+import hello.datajpa.repository.MemberRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+    기본형 배열(long[], int[], MemberColumns) vs JPQL 스칼라 조회(List<Long>, List<Integer>, List<Object[]>)
+    gc 프로파일러의 gc.alloc.rate.norm 을 datasetSize 로 나누면 row 당 할당량이 된다.
+
+    ./gradlew jmh -PjmhIncludes=PrimitiveResultBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PrimitiveResultBenchmark {
+    @Param({"100000"})
+    int datasetSize;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    EntityManager em;
+    TransactionTemplate readOnlyTransactionTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.seed(context, datasetSize);
+
+        memberRepository = context.getBean(MemberRepository.class);
+        em = context.getBean(EntityManager.class);
+        readOnlyTransactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long[] idsPrimitive() {
+        return memberRepository.findAllIds();
+    }
+
+    @Benchmark
+    public List<Long> idsBoxed() {
+        return readOnlyTransactionTemplate.execute(status ->
+                em.createQuery("select m.id from Member m order by m.id", Long.class).getResultList());
+    }
+
+    @Benchmark
+    public int[] agesPrimitive() {
+        return memberRepository.findAllAges();
+    }
+
+    @Benchmark
+    public List<Integer> agesBoxed() {
+        return readOnlyTransactionTemplate.execute(status ->
+                em.createQuery("select m.age from Member m order by m.id", Integer.class).getResultList());
+    }
+
+    @Benchmark
+    public MemberColumns columns() {
+        return memberRepository.findAllColumns();
+    }
+
+    @Benchmark
+    public List<Object[]> tuples() {
+        return readOnlyTransactionTemplate.execute(status ->
+                em.createQuery("select m.id, m.username, m.age from Member m order by m.id", Object[].class).getResultList());
+    }
+}
@@ -0,0 +1,100 @@
+package hello.datajpa.benchmark;
+
+import hello.datajpa.dto.MemberSummary;
+import hello.datajpa.entity.Member;
+import hello.datajpa.repository.MemberRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+    엔티티 vs 프로젝션 vs 튜플 조회
+    gc 프로파일러의 gc.alloc.rate.norm(op 당 할당 바이트)을 pageSize 로 나누면 row 당 할당량이 된다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ReadPathBenchmark {
+    @Param({"10000"})
+    int datasetSize;
+
+    @Param({"100"})
+    int pageSize;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    EntityManager em;
+    TransactionTemplate transactionTemplate;
+    TransactionTemplate readOnlyTransactionTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.seed(context, datasetSize);
+
+        memberRepository = context.getBean(MemberRepository.class);
+        em = context.getBean(EntityManager.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private int randomAge() {
+        return ThreadLocalRandom.current().nextInt(BenchmarkApplication.AGE_RANGE);
+    }
+
+    /*
+        읽기/쓰기 트랜잭션: 스냅샷 생성 + 커밋 시 변경감지
+     */
+    @Benchmark
+    public Slice<Member> entity() {
+        return transactionTemplate.execute(status ->
+                memberRepository.findSliceByAge(randomAge(), PageRequest.of(0, pageSize)));
+    }
+
+    /*
+        읽기 전용 트랜잭션: 스냅샷 없음, flush 없음
+     */
+    @Benchmark
+    public Slice<Member> entityReadOnly() {
+        return readOnlyTransactionTemplate.execute(status ->
+                memberRepository.findSliceByAge(randomAge(), PageRequest.of(0, pageSize)));
+    }
+
+    @Benchmark
+    public Slice<MemberSummary> projection() {
+        return readOnlyTransactionTemplate.execute(status ->
+                memberRepository.findSliceByAge(randomAge(), PageRequest.of(0, pageSize), MemberSummary.class));
+    }
+
+    @Benchmark
+    public List<Object[]> tuple() {
+        return readOnlyTransactionTemplate.execute(status ->
+                em.createQuery("select m.id, m.username, m.age from Member m where m.age = :age", Object[].class)
+                        .setParameter("age", randomAge())
+                        .setMaxResults(pageSize + 1)
+                        .getResultList());
+    }
+}
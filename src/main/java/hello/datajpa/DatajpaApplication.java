@@ -1,15 +1,20 @@
 package hello.datajpa;
 
+import hello.datajpa.support.TransactionAuditorAware;
+import hello.datajpa.support.TransactionDateTimeProvider;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
+import org.springframework.data.auditing.CurrentDateTimeProvider;
+import org.springframework.data.auditing.DateTimeProvider;
 import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 
 import java.util.Optional;
 import java.util.UUID;
 
-@EnableJpaAuditing
+@EnableJpaAuditing(dateTimeProviderRef = "auditingDateTimeProvider")
 @SpringBootApplication
 public class DatajpaApplication {
 
@@ -17,8 +22,25 @@ public class DatajpaApplication {
 		SpringApplication.run(DatajpaApplication.class, args);
 	}
 
+	/*
+		등록자, 등록일을 트랜잭션마다 한번만 계산한다.
+		datajpa.auditing.per-transaction=false 면 저장, 수정마다 새로 만든다. (벤치마크 비교용)
+	 */
 	@Bean
+	@ConditionalOnProperty(name = "datajpa.auditing.per-transaction", havingValue = "true", matchIfMissing = true)
 	public AuditorAware<String> auditorProvider() {
+		return new TransactionAuditorAware();
+	}
+
+	@Bean
+	@ConditionalOnProperty(name = "datajpa.auditing.per-transaction", havingValue = "true", matchIfMissing = true)
+	public DateTimeProvider auditingDateTimeProvider() {
+		return new TransactionDateTimeProvider();
+	}
+
+	@Bean("auditorProvider")
+	@ConditionalOnProperty(name = "datajpa.auditing.per-transaction", havingValue = "false")
+	public AuditorAware<String> perCallAuditorProvider() {
 		return new AuditorAware<String>() {
 			@Override
 			public Optional<String> getCurrentAuditor() {
@@ -27,4 +49,10 @@ public class DatajpaApplication {
 		};
 	}
 
+	@Bean("auditingDateTimeProvider")
+	@ConditionalOnProperty(name = "datajpa.auditing.per-transaction", havingValue = "false")
+	public DateTimeProvider perCallDateTimeProvider() {
+		return CurrentDateTimeProvider.INSTANCE;
+	}
+
 }
@@ -0,0 +1,44 @@
+package hello.datajpa.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/*
+    jdbc 작업 전용 실행기
+    톰캣 스레드는 요청을 넘기고 바로 반환되고 db 작업은 이 실행기에서만 돈다.
+    스레드 수를 커넥션 풀 크기와 같게 두어서 동시에 db를 쓰는 작업 수가 풀 크기를 넘지 않게 막는다. (커넥션 대기 없음)
+    넘치는 작업은 큐에서 기다리고 큐까지 차면 TaskRejectedException (503)
+ */
+@Configuration
+public class AsyncConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor jdbcTaskExecutor(@Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+                                                   @Value("${datajpa.jdbc-executor.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("jdbc-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    /*
+        MemberPartitionProcessor 전용 실행기
+        실행마다 스레드 풀을 만들지 않고 이 풀을 같이 써서 배치가 쓰는 커넥션 수가 datajpa.partition.parallelism 을 넘지 않는다.
+        chunk 는 실행 중인 것이 스레드 수를 넘지 않게 넣으므로 큐는 스레드 수만큼이면 된다.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor memberPartitionExecutor(@Value("${datajpa.partition.parallelism:4}") int parallelism) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setQueueCapacity(parallelism);
+        executor.setThreadNamePrefix("member-partition-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+}
@@ -0,0 +1,40 @@
+package hello.datajpa.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import javax.persistence.EntityManagerFactory;
+
+/*
+    커넥션 풀 지표(hikaricp.connections.*)와 쿼리 플랜 캐시 hit/miss(hibernate.cache.query.plan)는
+    스프링 부트가 등록한다. 여기서는 대시보드에서 바로 볼 수 있게 플랜 캐시 적중률만 추가한다.
+
+    hibernate 가 JPQL 을 sql 로 바꾼 결과(쿼리 플랜)의 캐시이고 jdbc prepared statement 캐시가 아니다.
+    (H2 의 QUERY_CACHE_SIZE 적중률은 드라이버가 내보내지 않는다)
+    hibernate 통계가 켜져 있을 때만(HIBERNATE_STATISTICS=true) 등록한다.
+ */
+@Profile("prod")
+@ConditionalOnProperty(name = "spring.jpa.properties.hibernate.generate_statistics", havingValue = "true")
+@Configuration
+public class DataSourceMetricsConfig {
+
+    @Bean
+    public MeterBinder hqlPlanCacheHitRatio(EntityManagerFactory entityManagerFactory) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return registry -> Gauge.builder("hibernate.hql.plan.cache.hit.ratio", statistics, DataSourceMetricsConfig::hitRatio)
+                .description("Hibernate HQL/JPQL query plan cache hits / (hits + misses), not the JDBC statement cache")
+                .register(registry);
+    }
+
+    private static double hitRatio(Statistics statistics) {
+        long hit = statistics.getQueryPlanCacheHitCount();
+        long total = hit + statistics.getQueryPlanCacheMissCount();
+        return total == 0 ? 0 : (double) hit / total;
+    }
+}
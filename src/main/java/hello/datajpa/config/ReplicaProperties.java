@@ -0,0 +1,25 @@
+package hello.datajpa.config;
+
+import hello.datajpa.support.ReadWriteRoutingDataSource.LoadBalance;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties("datajpa.replica")
+public class ReplicaProperties {
+    private List<String> urls = new ArrayList<>();
+    private String username = "sa";
+    private String password = "";
+    private int maximumPoolSize = 10;
+    private LoadBalance loadBalance = LoadBalance.ROUND_ROBIN;
+    /*
+        쓰기 후 이 시간 동안은 같은 스레드의 읽기도 primary 로 보낸다. (replica 반영 지연 허용치)
+     */
+    private Duration lagTolerance = Duration.ofSeconds(1);
+}
@@ -0,0 +1,19 @@
+package hello.datajpa.config;
+
+import hello.datajpa.support.RepositoryMetricsPostProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.persistence.EntityManagerFactory;
+
+@Configuration
+public class RepositoryMetricsConfig {
+
+    @Bean
+    public static RepositoryMetricsPostProcessor repositoryMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry,
+                                                                                ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        return new RepositoryMetricsPostProcessor(meterRegistry, entityManagerFactory);
+    }
+}
@@ -0,0 +1,34 @@
+package hello.datajpa.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.persistence.EntityManagerFactory;
+
+/*
+    region 별 hit, miss, put 은 hibernate 통계(hibernate.second.level.cache.*)로 나가고
+    eviction 은 hibernate가 모르기 때문에 jcache 통계(cache.evictions)를 region 별로 등록한다.
+ */
+@Profile("cache")
+@Configuration
+public class SecondLevelCacheConfig {
+
+    /*
+        region(jcache 캐시)은 EntityManagerFactory가 만들어질 때 생성되므로 EntityManagerFactory를 먼저 주입 받는다.
+     */
+    @Bean
+    public MeterBinder secondLevelCacheRegionMetrics(EntityManagerFactory entityManagerFactory) {
+        return registry -> {
+            CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName()).getCacheManager();
+            for (String region : cacheManager.getCacheNames()) {
+                JCacheMetrics.monitor(registry, cacheManager.getCache(region), "layer", "second-level");
+            }
+        };
+    }
+}
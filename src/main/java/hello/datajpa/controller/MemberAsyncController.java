@@ -0,0 +1,55 @@
+package hello.datajpa.controller;
+
+import hello.datajpa.dto.MemberDto;
+import hello.datajpa.repository.MemberRepository;
+import hello.datajpa.support.MemberBatchLoader;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/*
+    MemberController 와 같은 조회를 jdbcTaskExecutor 에서 비동기로 실행한다.
+    CompletableFuture 를 반환하면 서블릿 비동기 처리로 톰캣 스레드가 db 를 기다리지 않는다.
+ */
+@RestController
+public class MemberAsyncController {
+    private final MemberRepository memberRepository;
+    private final MemberBatchLoader memberBatchLoader;
+    private final Executor jdbcTaskExecutor;
+
+    public MemberAsyncController(MemberRepository memberRepository,
+                                 MemberBatchLoader memberBatchLoader,
+                                 @Qualifier("jdbcTaskExecutor") Executor jdbcTaskExecutor) {
+        this.memberRepository = memberRepository;
+        this.memberBatchLoader = memberBatchLoader;
+        this.jdbcTaskExecutor = jdbcTaskExecutor;
+    }
+
+    @GetMapping("/async/members/{id}")
+    public CompletableFuture<String> findMember(@PathVariable Long id) {
+        return memberBatchLoader.load(id).thenApply(member -> member
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "member not found: " + id))
+                .getUsername());
+    }
+
+    @GetMapping("/async/members")
+    public CompletableFuture<Page<MemberDto>> list(Pageable pageable) {
+        return CompletableFuture.supplyAsync(() -> memberRepository.findMemberDtoPage(pageable), jdbcTaskExecutor);
+    }
+
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    @ExceptionHandler(TaskRejectedException.class)
+    public void rejected() {
+    }
+}
@@ -1,25 +1,77 @@
 package hello.datajpa.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.datajpa.dto.CursorPage;
 import hello.datajpa.dto.MemberDto;
+import hello.datajpa.dto.MemberSummary;
+import hello.datajpa.dto.SliceResponse;
 import hello.datajpa.entity.Member;
 import hello.datajpa.repository.MemberRepository;
-import lombok.RequiredArgsConstructor;
+import hello.datajpa.support.MemberBatchLoader;
+import hello.datajpa.support.MemberChangeVersion;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
 import javax.annotation.PostConstruct;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-@RequiredArgsConstructor
 @RestController
 public class MemberController {
+    private static final int EXPORT_FLUSH_SIZE = 1000;
+
     private final MemberRepository memberRepository;
+    private final MemberBatchLoader memberBatchLoader;
+    private final MemberChangeVersion memberChangeVersion;
+    private final ObjectMapper objectMapper;
+    private final int maxPageSize;
+
+    /*
+        keyset 페이징의 size 도 Pageable 과 같은 최대값(spring.data.web.pageable.max-page-size)으로 자른다.
+     */
+    public MemberController(MemberRepository memberRepository,
+                            MemberBatchLoader memberBatchLoader,
+                            MemberChangeVersion memberChangeVersion,
+                            ObjectMapper objectMapper,
+                            @Value("${spring.data.web.pageable.max-page-size:2000}") int maxPageSize) {
+        this.memberRepository = memberRepository;
+        this.memberBatchLoader = memberBatchLoader;
+        this.memberChangeVersion = memberChangeVersion;
+        this.objectMapper = objectMapper;
+        this.maxPageSize = maxPageSize;
+    }
+
+    /*
+        동시에 들어온 단건 조회를 MemberBatchLoader 가 모아서 in 쿼리 한번으로 조회한다.
+        CompletableFuture 를 그대로 반환해서 모으는 동안(max-wait) 톰캣 스레드가 기다리지 않는다.
+        없는 회원이면 404, jdbcTaskExecutor 가 꽉 차서 거절되면 503
+     */
     @GetMapping("/members/{id}")
-    public String findMember(@PathVariable Long id) {
-        Member member = memberRepository.findById(id).get();
-        return member.getUsername();
+    public CompletableFuture<String> findMember(@PathVariable Long id) {
+        return memberBatchLoader.load(id).thenApply(member -> member
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "member not found: " + id))
+                .getUsername());
     }
 
     /*
@@ -31,11 +83,111 @@ public class MemberController {
         return member.getUsername();
     }
 
+    /*
+        엔티티를 조회해서 dto로 바꾸지 않고 생성자 프로젝션으로 필요한 컬럼만 조회한다.
+        전체 건수는 MemberCountCache 에 캐시된 값을 쓰기 때문에 보통 count 쿼리가 나가지 않는다.
+     */
     @GetMapping("/members")
     public Page<MemberDto> list(Pageable pageable) {
-        Page<Member> page = memberRepository.findAll(pageable);
-        Page<MemberDto> map = page.map(member -> new MemberDto(member.getId(), member.getUsername(), null));
-        return map;
+        return memberRepository.findMemberDtoPage(pageable);
+    }
+
+    /*
+        무한 스크롤
+        Slice 는 size + 1 건을 조회해서 다음 페이지 여부만 알아내고 count 쿼리는 하지 않는다.
+        ETag 는 회원 데이터 버전이라 변경이 없으면 db 조회 없이 304 를 돌려준다.
+     */
+    @GetMapping("/members/by-age/{age}")
+    public SliceResponse<MemberSummary> scrollByAge(@PathVariable int age, Pageable pageable,
+                                                    WebRequest request, HttpServletResponse response) {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        if (request.checkNotModified("m" + memberChangeVersion.current())) {
+            return null;
+        }
+
+        Slice<MemberSummary> slice = memberRepository.findSliceByAge(age, pageable, MemberSummary.class);
+        return new SliceResponse<>(slice.getContent(), slice.hasNext());
+    }
+
+    /*
+        offset 페이징은 뒤 페이지로 갈수록 느려지고 매번 count 쿼리가 나간다.
+        cursor(마지막 member_id)를 기준으로 조회하면 몇 번째 페이지든 비용이 같다.
+        readOnly 트랜잭션에서는 hibernate 세션이 기본 읽기 전용이 되어서 스냅샷을 만들지 않고 flush도 하지 않는다.
+        size 가 0 이하면 400, maxPageSize 보다 크면 maxPageSize 로 줄인다.
+     */
+    @Transactional(readOnly = true)
+    @GetMapping("/members/keyset")
+    public CursorPage<MemberDto> keysetList(@RequestParam(required = false) String cursor,
+                                            @RequestParam(defaultValue = "20") int size) {
+        if (size < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "size must be positive: " + size);
+        }
+        Long lastId;
+        try {
+            lastId = CursorPage.decodeCursor(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+
+        Slice<Member> slice = memberRepository.findMembersAfter(lastId, Math.min(size, maxPageSize));
+        List<MemberDto> content = slice.getContent().stream()
+                .map(member -> new MemberDto(member.getId(), member.getUsername(), null))
+                .collect(Collectors.toList());
+
+        Long nextLastId = content.isEmpty() ? null : content.get(content.size() - 1).getId();
+        return new CursorPage<>(content, nextLastId, slice.hasNext());
+    }
+
+    /*
+        전체 회원을 응답으로 바로 흘려보낸다. (ndjson 또는 csv)
+        조회 결과를 메모리에 모으지 않고 EXPORT_FLUSH_SIZE 건마다 flush 해서 chunked 응답으로 나간다.
+        stream은 트랜잭션 안에서만 읽을 수 있어서 메소드 전체를 읽기 전용 트랜잭션으로 묶었다.
+     */
+    @Transactional(readOnly = true)
+    @GetMapping("/members/export")
+    public void export(@RequestParam(defaultValue = "ndjson") String format,
+                       HttpServletResponse response) throws IOException {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        response.setContentType(csv ? "text/csv" : "application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+
+        PrintWriter writer = response.getWriter();
+        if (csv) {
+            writer.write("id,username,teamName\n");
+        }
+
+        try (Stream<MemberDto> stream = memberRepository.streamMemberDto()) {
+            Iterator<MemberDto> iterator = stream.iterator();
+            int count = 0;
+            while (iterator.hasNext()) {
+                MemberDto memberDto = iterator.next();
+                writer.write(csv ? toCsvLine(memberDto) : objectMapper.writeValueAsString(memberDto));
+                writer.write('\n');
+                if (++count % EXPORT_FLUSH_SIZE == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    private String toCsvLine(MemberDto memberDto) {
+        return memberDto.getId() + "," + csvValue(memberDto.getUsername()) + "," + csvValue(memberDto.getTeamName());
+    }
+
+    private String csvValue(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    @ExceptionHandler(TaskRejectedException.class)
+    public void rejected() {
     }
 
 //    @PostConstruct
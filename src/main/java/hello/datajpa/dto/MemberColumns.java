@@ -0,0 +1,51 @@
+package hello.datajpa.dto;
+
+/*
+    회원 id, username, age 를 열 단위 배열로 담는다.
+    row 마다 dto 나 Long, Integer 를 만들지 않으므로 건수가 많은 집계용 조회에 쓴다.
+    i 번째 회원 = ids[i], usernames[i], ages[i] (0 <= i < size)
+
+    ids(), usernames(), ages() 는 복사하지 않고 내부 배열을 그대로 돌려준다. (길이 = size)
+    같은 MemberColumns 를 보는 다른 코드도 바뀌므로 돌려받은 배열은 바꾸지 말 것
+ */
+public class MemberColumns {
+    private final int size;
+    private final long[] ids;
+    private final String[] usernames;
+    private final int[] ages;
+
+    public MemberColumns(int size, long[] ids, String[] usernames, int[] ages) {
+        this.size = size;
+        this.ids = ids;
+        this.usernames = usernames;
+        this.ages = ages;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long id(int index) {
+        return ids[index];
+    }
+
+    public String username(int index) {
+        return usernames[index];
+    }
+
+    public int age(int index) {
+        return ages[index];
+    }
+
+    public long[] ids() {
+        return ids;
+    }
+
+    public String[] usernames() {
+        return usernames;
+    }
+
+    public int[] ages() {
+        return ages;
+    }
+}
@@ -0,0 +1,13 @@
+package hello.datajpa.dto;
+
+/*
+    인터페이스 기반 프로젝션 (closed projection)
+    select 절에 필요한 컬럼만 조회하고 엔티티를 만들지 않기 때문에 스냅샷, 변경감지 비용이 없다.
+ */
+public interface MemberSummary {
+    Long getId();
+
+    String getUsername();
+
+    int getAge();
+}
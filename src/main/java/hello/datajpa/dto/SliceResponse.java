@@ -0,0 +1,20 @@
+package hello.datajpa.dto;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/*
+    무한 스크롤 응답
+    Slice 를 그대로 내보내면 pageable, sort 등 필요 없는 필드가 같이 나가서 content 와 hasNext 만 담는다.
+ */
+@Getter
+public class SliceResponse<T> {
+    private final List<T> content;
+    private final boolean hasNext;
+
+    public SliceResponse(List<T> content, boolean hasNext) {
+        this.content = content;
+        this.hasNext = hasNext;
+    }
+}
@@ -44,6 +44,10 @@ public class Item implements Persistable<String> {
         return id;
     }
 
+    public String getName() {
+        return name;
+    }
+
     @Override
     public boolean isNew() {
         return createdDate == null;
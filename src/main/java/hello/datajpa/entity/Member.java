@@ -1,10 +1,23 @@
 package hello.datajpa.entity;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 import javax.persistence.*;
 
 @Entity
+/*
+    username 조회(=, in)와 username + age 조회는 (username, age) 인덱스, age 조회는 age 인덱스를 탄다.
+ */
+@Table(indexes = {
+        @Index(name = "idx_member_username_age", columnList = "username, age"),
+        @Index(name = "idx_member_age", columnList = "age")})
+@EntityListeners(MemberEntityListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "member")
 @Getter
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
@@ -12,15 +25,24 @@ import javax.persistence.*;
 //@EqualsAndHashCode(of = {"id", "username", "age"})
 @NamedQuery(name = "Member.findByUsername2",
         query = "select m from Member m where m.username = :username")
+@GenericGenerator(name = "member_seq_generator", strategy = "hello.datajpa.support.PooledLoSequenceGenerator",
+        parameters = @Parameter(name = "sequence_name", value = "member_seq"))
 public class Member extends BaseEntity{
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(generator = "member_seq_generator")
     @Column(name = "member_id")
     private Long id;
     private String username;
     private int age;
 
+    /*
+        낙관적 락. 수정할 때 version 을 조건으로 update 하고 다른 트랜잭션이 먼저 바꿨으면 예외가 난다.
+     */
+    @Version
+    @Setter(AccessLevel.NONE)
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "team_id")
     private Team team;
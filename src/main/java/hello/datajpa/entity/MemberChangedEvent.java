@@ -0,0 +1,35 @@
+package hello.datajpa.entity;
+
+import java.util.Collections;
+import java.util.Map;
+
+/*
+    커밋된 트랜잭션에서 바뀐 회원 (MemberChangeTracker 가 트랜잭션마다 한번 발행한다)
+    usernameById: 저장, 수정, 삭제된 회원 id -> 변경 후 username
+    all: 벌크 연산이거나 바뀐 회원이 너무 많아서 어떤 회원이 바뀌었는지 따로 기록하지 않은 경우
+ */
+public class MemberChangedEvent {
+    private final boolean all;
+    private final Map<Long, String> usernameById;
+
+    private MemberChangedEvent(boolean all, Map<Long, String> usernameById) {
+        this.all = all;
+        this.usernameById = usernameById;
+    }
+
+    public static MemberChangedEvent of(Map<Long, String> usernameById) {
+        return new MemberChangedEvent(false, Collections.unmodifiableMap(usernameById));
+    }
+
+    public static MemberChangedEvent all() {
+        return new MemberChangedEvent(true, Collections.emptyMap());
+    }
+
+    public boolean isAll() {
+        return all;
+    }
+
+    public Map<Long, String> getUsernameById() {
+        return usernameById;
+    }
+}
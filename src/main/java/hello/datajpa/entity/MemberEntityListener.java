@@ -0,0 +1,27 @@
+package hello.datajpa.entity;
+
+import hello.datajpa.support.MemberChangeTracker;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/*
+    hibernate 가 스프링 빈 컨테이너로 생성하기 때문에 생성자 주입을 받을 수 있다.
+    바뀐 회원은 MemberChangeTracker 가 트랜잭션 단위로 모아서 커밋 후에 한번 알린다.
+    벌크 연산(JPQL update, delete)은 엔티티를 거치지 않으므로 벌크 연산 쪽에서 직접 changedAll() 을 호출한다.
+ */
+public class MemberEntityListener {
+    private final MemberChangeTracker memberChangeTracker;
+
+    public MemberEntityListener(MemberChangeTracker memberChangeTracker) {
+        this.memberChangeTracker = memberChangeTracker;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void changed(Member member) {
+        memberChangeTracker.changed(member.getId(), member.getUsername());
+    }
+}
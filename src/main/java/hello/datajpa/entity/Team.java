@@ -1,24 +1,49 @@
 package hello.datajpa.entity;
 
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.OptimisticLock;
+import org.hibernate.annotations.Parameter;
 
 import javax.persistence.*;
 import java.util.ArrayList;
 import java.util.List;
 
+/*
+    Member.team 프록시는 팀 단위로 모아서 초기화한다. (default_batch_fetch_size 보다 우선)
+ */
 @Entity
+@EntityListeners(TeamEntityListener.class)
+@BatchSize(size = 200)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "team")
 @Getter
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "name"})
+@GenericGenerator(name = "team_seq_generator", strategy = "hello.datajpa.support.PooledLoSequenceGenerator",
+        parameters = @Parameter(name = "sequence_name", value = "team_seq"))
 public class Team {
     @Id
-    @GeneratedValue
+    @GeneratedValue(generator = "team_seq_generator")
     @Column(name = "team_id")
     private Long id;
 
     private String name;
 
+    @Version
+    @Setter(AccessLevel.NONE)
+    private Long version;
+
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "team-members")
+    //회원 추가/삭제로 팀 version 이 올라가지 않도록 제외
+    @OptimisticLock(excluded = true)
+    @Fetch(FetchMode.SUBSELECT) //처음 팀들을 조회한 쿼리를 서브쿼리로 써서 모든 팀의 회원을 한번에 조회
     @OneToMany(mappedBy = "team")
     private List<Member> members = new ArrayList<>();
 
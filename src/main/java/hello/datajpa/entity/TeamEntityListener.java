@@ -0,0 +1,25 @@
+package hello.datajpa.entity;
+
+import hello.datajpa.support.MemberChangeTracker;
+
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/*
+    회원 조회 캐시(MemberUsernameCache)에는 팀 이름이 들어있어서 팀이 바뀌면 회원도 바뀐 것으로 알린다.
+    팀에 속한 회원을 다 찾지 않고 전체가 바뀐 것으로 본다. (팀 수정은 드물다)
+    members 컬렉션은 @OptimisticLock(excluded = true) 라서 회원 추가/삭제로는 호출되지 않는다.
+ */
+public class TeamEntityListener {
+    private final MemberChangeTracker memberChangeTracker;
+
+    public TeamEntityListener(MemberChangeTracker memberChangeTracker) {
+        this.memberChangeTracker = memberChangeTracker;
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void changed(Team team) {
+        memberChangeTracker.changedAll();
+    }
+}
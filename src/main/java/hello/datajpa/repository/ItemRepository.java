@@ -3,5 +3,5 @@ package hello.datajpa.repository;
 import hello.datajpa.entity.Item;
 import org.springframework.data.jpa.repository.JpaRepository;
 
-public interface ItemRepository extends JpaRepository<Item, Long> {
+public interface ItemRepository extends JpaRepository<Item, String>, ItemUpsertRepository {
 }
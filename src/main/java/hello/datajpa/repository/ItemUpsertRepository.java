@@ -0,0 +1,15 @@
+package hello.datajpa.repository;
+
+import hello.datajpa.entity.Item;
+
+import java.util.Collection;
+
+public interface ItemUpsertRepository {
+    /*
+        id 가 이미 있으면 name 만 수정하고 없으면 저장한다.
+        save()는 isNew()가 false 인 엔티티를 merge 하면서 한 건마다 select 를 하지만
+        이 메서드는 db 의 merge 문을 batchSize 개씩 jdbc 배치로 보낸다.
+        엔티티 리스너(auditing)를 거치지 않으므로 created_date 는 직접 넣는다.
+     */
+    int upsertAll(Collection<Item> items, int batchSize);
+}
@@ -0,0 +1,76 @@
+package hello.datajpa.repository;
+
+import hello.datajpa.entity.Item;
+import hello.datajpa.support.BulkSyncMode;
+import hello.datajpa.support.PersistenceContextSupport;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.auditing.DateTimeProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@RequiredArgsConstructor
+public class ItemUpsertRepositoryImpl implements ItemUpsertRepository {
+    private static final String UPSERT_SQL =
+            "merge into item t" +
+            " using (select cast(? as varchar(255)) as id, cast(? as varchar(255)) as name, cast(? as timestamp) as created_date) s" +
+            " on t.id = s.id" +
+            " when matched then update set name = s.name" +
+            " when not matched then insert (id, name, created_date) values (s.id, s.name, s.created_date)";
+
+    private final EntityManager em;
+    private final JdbcTemplate jdbcTemplate;
+    private final DateTimeProvider dateTimeProvider;
+
+    @Override
+    @Transactional
+    public int upsertAll(Collection<Item> items, int batchSize) {
+        //영속성 컨텍스트에 쌓인 Item 변경을 먼저 반영한다.
+        em.flush();
+
+        Timestamp createdDate = Timestamp.valueOf(dateTimeProvider.getNow()
+                .map(LocalDateTime::from)
+                .orElseGet(LocalDateTime::now));
+
+        int[][] results = jdbcTemplate.batchUpdate(UPSERT_SQL, items, batchSize, (ps, item) -> {
+            ps.setString(1, item.getId());
+            ps.setString(2, item.getName());
+            ps.setTimestamp(3, createdDate);
+        });
+
+        detachManaged(items);
+        return countRows(results);
+    }
+
+    /*
+        관리중인 Item 중 upsert 된 것은 db 와 달라졌으므로 분리한다.
+     */
+    private void detachManaged(Collection<Item> items) {
+        Set<Object> upsertedIds = new HashSet<>();
+        for (Item item : items) {
+            upsertedIds.add(item.getId());
+        }
+        List<Object> affectedIds = new ArrayList<>(PersistenceContextSupport.managedIds(em, Item.class));
+        affectedIds.retainAll(upsertedIds);
+        PersistenceContextSupport.synchronize(em, Item.class, affectedIds, BulkSyncMode.DETACH);
+    }
+
+    private static int countRows(int[][] results) {
+        int count = 0;
+        for (int[] batch : results) {
+            for (int rows : batch) {
+                //드라이버가 건수를 모르면 SUCCESS_NO_INFO(-2)를 준다.
+                count += rows < 0 ? 1 : rows;
+            }
+        }
+        return count;
+    }
+}
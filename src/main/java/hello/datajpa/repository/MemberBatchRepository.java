@@ -0,0 +1,12 @@
+package hello.datajpa.repository;
+
+import hello.datajpa.entity.Member;
+
+public interface MemberBatchRepository {
+    /*
+        chunkSize 단위로 flush + clear 해서 영속성 컨텍스트가 계속 커지지 않도록 한다.
+        hibernate.jdbc.batch_size 와 맞춰주면 chunk 하나가 insert 배치 한번으로 나간다.
+        호출하는 쪽 트랜잭션의 영속성 컨텍스트도 같이 비워지므로 기존에 관리되던 엔티티는 준영속 상태가 된다.
+     */
+    int saveAllBatched(Iterable<Member> members, int chunkSize);
+}
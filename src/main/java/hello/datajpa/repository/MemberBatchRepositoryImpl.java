@@ -0,0 +1,32 @@
+package hello.datajpa.repository;
+
+import hello.datajpa.entity.Member;
+import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+
+@RequiredArgsConstructor
+public class MemberBatchRepositoryImpl implements MemberBatchRepository {
+    private final EntityManager em;
+
+    @Override
+    @Transactional
+    public int saveAllBatched(Iterable<Member> members, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+        }
+
+        int count = 0;
+        for (Member member : members) {
+            em.persist(member);
+            if (++count % chunkSize == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+        em.flush();
+        em.clear();
+        return count;
+    }
+}
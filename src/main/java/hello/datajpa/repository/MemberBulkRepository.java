@@ -0,0 +1,19 @@
+package hello.datajpa.repository;
+
+import hello.datajpa.support.BulkSyncMode;
+
+public interface MemberBulkRepository {
+    /*
+        모든 회원의 나이를 1 증가시킨다. (영속성 컨텍스트는 맞추지 않는다)
+        @Query + @Modifying 쿼리 메서드로는 엔티티 리스너를 거치지 않은 변경을 알릴 수 없어서 구현을 직접 둔다.
+     */
+//    @Modifying(clearAutomatically = true)
+    int bulkAgePlus();
+
+    /*
+        age 이상인 회원의 나이를 1 증가시킨다.
+        @Modifying(clearAutomatically = true) 처럼 영속성 컨텍스트 전체를 비우지 않고
+        현재 영속성 컨텍스트에 있는 회원 중 실제로 바뀐 회원만 refresh 또는 detach 한다.
+     */
+    int bulkAgePlus(int age, BulkSyncMode syncMode);
+}
@@ -0,0 +1,56 @@
+package hello.datajpa.repository;
+
+import hello.datajpa.entity.Member;
+import hello.datajpa.support.BulkSyncMode;
+import hello.datajpa.support.MemberChangeTracker;
+import hello.datajpa.support.PersistenceContextSupport;
+import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+public class MemberBulkRepositoryImpl implements MemberBulkRepository {
+    private final EntityManager em;
+    private final MemberChangeTracker memberChangeTracker;
+
+    /*
+        readOnly 트랜잭션에서 실행되면 replica 로 라우팅되므로 쓰기 트랜잭션으로 실행한다.
+     */
+    @Override
+    @Transactional
+    public int bulkAgePlus() {
+        int resultCount = em.createQuery("update Member m set m.age = m.age + 1, m.version = m.version + 1")
+                .executeUpdate();
+        memberChangeTracker.changedAll();
+        return resultCount;
+    }
+
+    @Override
+    @Transactional
+    public int bulkAgePlus(int age, BulkSyncMode syncMode) {
+        /*
+            관리중인 회원 중 update 대상만 미리 골라둔다.
+            먼저 flush 해서 관리중인 회원과 db 가 같아진 뒤라 id 를 in 절로 다시 조회하지 않고 메모리에서 조건을 확인한다.
+            (관리중인 회원이 많아도 파라미터 수 제한이나 sql 종류가 늘어날 일이 없다)
+            그 사이 다른 트랜잭션이 바꾼 회원은 version 이 달라서 이후 수정할 때 낙관적 락 예외가 난다.
+         */
+        em.flush();
+        List<Long> affectedIds = PersistenceContextSupport.managedEntities(em, Member.class).stream()
+                .filter(member -> member.getAge() >= age)
+                .map(Member::getId)
+                .collect(Collectors.toList());
+
+        int resultCount = em.createQuery("update Member m set m.age = m.age + 1, m.version = m.version + 1 where m.age >= :age")
+                .setParameter("age", age)
+                .executeUpdate();
+
+        PersistenceContextSupport.synchronize(em, Member.class, affectedIds, syncMode);
+
+        // 벌크 연산은 엔티티 리스너를 거치지 않으므로 직접 알린다.
+        memberChangeTracker.changedAll();
+        return resultCount;
+    }
+}
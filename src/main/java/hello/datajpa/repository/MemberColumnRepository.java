@@ -0,0 +1,15 @@
+package hello.datajpa.repository;
+
+import hello.datajpa.dto.MemberColumns;
+
+/*
+    엔티티나 래퍼 타입(Long, Integer) 없이 ResultSet 을 기본형 배열로 바로 읽는다.
+    수백만 건을 List<Long> 으로 받으면 건마다 객체가 생기고 배열보다 메모리를 몇 배 쓴다.
+ */
+public interface MemberColumnRepository {
+    long[] findAllIds();
+
+    int[] findAllAges();
+
+    MemberColumns findAllColumns();
+}
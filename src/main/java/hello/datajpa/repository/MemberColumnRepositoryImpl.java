@@ -0,0 +1,100 @@
+package hello.datajpa.repository;
+
+import hello.datajpa.dto.MemberColumns;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Arrays;
+
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class MemberColumnRepositoryImpl implements MemberColumnRepository {
+    private static final int FETCH_SIZE = 1000;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final EntityManager em;
+
+    @Override
+    public long[] findAllIds() {
+        return session().doReturningWork(connection -> {
+            try (PreparedStatement ps = connection.prepareStatement("select member_id from member order by member_id")) {
+                ps.setFetchSize(FETCH_SIZE);
+                try (ResultSet rs = ps.executeQuery()) {
+                    long[] ids = new long[INITIAL_CAPACITY];
+                    int size = 0;
+                    while (rs.next()) {
+                        if (size == ids.length) {
+                            ids = Arrays.copyOf(ids, size * 2);
+                        }
+                        ids[size++] = rs.getLong(1);
+                    }
+                    return Arrays.copyOf(ids, size);
+                }
+            }
+        });
+    }
+
+    @Override
+    public int[] findAllAges() {
+        return session().doReturningWork(connection -> {
+            try (PreparedStatement ps = connection.prepareStatement("select age from member order by member_id")) {
+                ps.setFetchSize(FETCH_SIZE);
+                try (ResultSet rs = ps.executeQuery()) {
+                    int[] ages = new int[INITIAL_CAPACITY];
+                    int size = 0;
+                    while (rs.next()) {
+                        if (size == ages.length) {
+                            ages = Arrays.copyOf(ages, size * 2);
+                        }
+                        ages[size++] = rs.getInt(1);
+                    }
+                    return Arrays.copyOf(ages, size);
+                }
+            }
+        });
+    }
+
+    @Override
+    public MemberColumns findAllColumns() {
+        return session().doReturningWork(connection -> {
+            try (PreparedStatement ps = connection.prepareStatement("select member_id, username, age from member order by member_id")) {
+                ps.setFetchSize(FETCH_SIZE);
+                try (ResultSet rs = ps.executeQuery()) {
+                    long[] ids = new long[INITIAL_CAPACITY];
+                    String[] usernames = new String[INITIAL_CAPACITY];
+                    int[] ages = new int[INITIAL_CAPACITY];
+                    int size = 0;
+                    while (rs.next()) {
+                        if (size == ids.length) {
+                            ids = Arrays.copyOf(ids, size * 2);
+                            usernames = Arrays.copyOf(usernames, size * 2);
+                            ages = Arrays.copyOf(ages, size * 2);
+                        }
+                        ids[size] = rs.getLong(1);
+                        usernames[size] = rs.getString(2);
+                        ages[size] = rs.getInt(3);
+                        size++;
+                    }
+                    return new MemberColumns(size, Arrays.copyOf(ids, size), Arrays.copyOf(usernames, size), Arrays.copyOf(ages, size));
+                }
+            }
+        });
+    }
+
+    /*
+        jdbc 로 직접 읽으면 hibernate 가 auto flush 를 하지 않으므로
+        쓰기 트랜잭션에 참여한 경우에는 먼저 flush 한다. (readOnly 트랜잭션은 MANUAL)
+     */
+    private Session session() {
+        Session session = em.unwrap(Session.class);
+        if (session.getHibernateFlushMode() != FlushMode.MANUAL) {
+            session.flush();
+        }
+        return session;
+    }
+}
@@ -0,0 +1,16 @@
+package hello.datajpa.repository;
+
+import hello.datajpa.dto.MemberDto;
+import hello.datajpa.entity.Member;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+public interface MemberCountCachedRepository {
+    /*
+        count 쿼리 결과를 MemberCountCache 에 캐시해서 평소에는 content 쿼리 하나만 나간다.
+        마지막 페이지처럼 content 만으로 전체 건수를 알 수 있으면 count 를 아예 하지 않는다.
+     */
+    Page<MemberDto> findMemberDtoPage(Pageable pageable);
+
+    Page<Member> findByAgeWithCachedCount(int age, Pageable pageable);
+}
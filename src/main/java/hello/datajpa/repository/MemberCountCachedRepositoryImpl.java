@@ -0,0 +1,53 @@
+package hello.datajpa.repository;
+
+import hello.datajpa.dto.MemberDto;
+import hello.datajpa.entity.Member;
+import hello.datajpa.support.MemberCountCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.util.List;
+
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class MemberCountCachedRepositoryImpl implements MemberCountCachedRepository {
+    private final EntityManager em;
+    private final MemberCountCache memberCountCache;
+
+    @Override
+    public Page<MemberDto> findMemberDtoPage(Pageable pageable) {
+        String jpql = QueryUtils.applySorting(
+                "select new hello.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m left join m.team t",
+                pageable.getSort(), "m");
+        List<MemberDto> content = paging(em.createQuery(jpql, MemberDto.class), pageable).getResultList();
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> memberCountCache.get("Member.all",
+                () -> em.createQuery("select count(m) from Member m", Long.class).getSingleResult()));
+    }
+
+    @Override
+    public Page<Member> findByAgeWithCachedCount(int age, Pageable pageable) {
+        String jpql = QueryUtils.applySorting("select m from Member m where m.age = :age", pageable.getSort(), "m");
+        List<Member> content = paging(em.createQuery(jpql, Member.class).setParameter("age", age), pageable)
+                .getResultList();
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> memberCountCache.get("Member.age:" + age,
+                () -> em.createQuery("select count(m) from Member m where m.age = :age", Long.class)
+                        .setParameter("age", age)
+                        .getSingleResult()));
+    }
+
+    private static <T> TypedQuery<T> paging(TypedQuery<T> query, Pageable pageable) {
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        return query;
+    }
+}
@@ -1,9 +1,17 @@
 package hello.datajpa.repository;
 
+import hello.datajpa.dto.MemberDto;
 import hello.datajpa.entity.Member;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface MemberCustomRepository {
     List<Member> findMemberCustom();
+
+    /*
+        전체 회원을 List로 올리지 않고 커서로 한 건씩 읽어온다.
+        트랜잭션 안에서 사용하고 다 쓴 뒤에는 반드시 close 해야 커서가 닫힌다. (try-with-resources)
+     */
+    Stream<MemberDto> streamMemberDto();
 }
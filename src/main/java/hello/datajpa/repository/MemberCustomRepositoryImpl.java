@@ -1,17 +1,37 @@
 package hello.datajpa.repository;
 
+import hello.datajpa.dto.MemberDto;
 import hello.datajpa.entity.Member;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.QueryHints;
 
 import javax.persistence.EntityManager;
 import java.util.List;
+import java.util.stream.Stream;
 
 @RequiredArgsConstructor
 public class MemberCustomRepositoryImpl implements MemberCustomRepository {
+    private static final int STREAM_FETCH_SIZE = 1000;
+
     private final EntityManager em;
 
     @Override
     public List<Member> findMemberCustom() {
         return em.createQuery("select m from Member m", Member.class).getResultList();
     }
+
+    /*
+        엔티티가 아니라 생성자 프로젝션으로 읽기 때문에 영속성 컨텍스트에 아무것도 쌓이지 않는다.
+        (스냅샷, 변경감지, 주기적인 detach가 필요 없음)
+        hibernate는 getResultStream을 forward-only ScrollableResults로 처리한다.
+     */
+    @Override
+    public Stream<MemberDto> streamMemberDto() {
+        return em.createQuery(
+                        "select new hello.datajpa.dto.MemberDto(m.id, m.username, t.name)" +
+                                " from Member m left join m.team t", MemberDto.class)
+                .setHint(QueryHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .getResultStream();
+    }
 }
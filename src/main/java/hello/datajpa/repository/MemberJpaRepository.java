@@ -1,6 +1,8 @@
 package hello.datajpa.repository;
 
 import hello.datajpa.entity.Member;
+import hello.datajpa.support.MemberChangeTracker;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
 import javax.persistence.EntityManager;
@@ -13,6 +15,9 @@ public class MemberJpaRepository {
     @PersistenceContext
     private EntityManager em;
 
+    @Autowired
+    private MemberChangeTracker memberChangeTracker;
+
     public Member save(Member member) {
         em.persist(member);
         return member;
@@ -50,6 +55,9 @@ public class MemberJpaRepository {
     }
 
     public int bulkAgePlus(int age) {
-        return em.createQuery("update Member m set m.age = m.age + 1").executeUpdate();
+        int resultCount = em.createQuery("update Member m set m.age = m.age + 1, m.version = m.version + 1").executeUpdate();
+        //벌크 연산은 엔티티 리스너를 거치지 않으므로 직접 알린다.
+        memberChangeTracker.changedAll();
+        return resultCount;
     }
 }
@@ -0,0 +1,13 @@
+package hello.datajpa.repository;
+
+import hello.datajpa.entity.Member;
+import org.springframework.data.domain.Slice;
+
+public interface MemberKeysetRepository {
+    /*
+        offset 대신 마지막으로 조회한 member_id 이후부터 조회한다. (keyset, seek 방식)
+        lastId가 null이면 첫 페이지
+        count 쿼리 없이 size + 1 건을 조회해서 다음 페이지 유무만 판단한다.
+     */
+    Slice<Member> findMembersAfter(Long lastId, int size);
+}
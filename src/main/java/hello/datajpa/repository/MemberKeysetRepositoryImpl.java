@@ -0,0 +1,32 @@
+package hello.datajpa.repository;
+
+import hello.datajpa.entity.Member;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class MemberKeysetRepositoryImpl implements MemberKeysetRepository {
+    private final EntityManager em;
+
+    @Override
+    public Slice<Member> findMembersAfter(Long lastId, int size) {
+        TypedQuery<Member> query = lastId == null
+                ? em.createQuery("select m from Member m order by m.id", Member.class)
+                : em.createQuery("select m from Member m where m.id > :lastId order by m.id", Member.class)
+                        .setParameter("lastId", lastId);
+
+        List<Member> content = query.setMaxResults(size + 1).getResultList();
+
+        boolean hasNext = content.size() > size;
+        if (hasNext) {
+            content = content.subList(0, size);
+        }
+        return new SliceImpl<>(content, Pageable.ofSize(size), hasNext);
+    }
+}
@@ -0,0 +1,15 @@
+package hello.datajpa.repository;
+
+import hello.datajpa.entity.Member;
+
+import java.util.function.Function;
+
+public interface MemberOptimisticRepository {
+    /*
+        findLockById(PESSIMISTIC_WRITE) 대신 @Version 으로 충돌을 감지하고 재시도한다.
+        매 시도는 새 트랜잭션에서 회원을 다시 읽어서 update 를 적용하고 커밋한다.
+        충돌이 나면 backoff 후 다시 시도하고 max-attempts 를 넘으면 마지막 예외를 던진다.
+        (datajpa.optimistic-lock.*)
+     */
+    <R> R updateWithRetry(Long memberId, Function<Member, R> update);
+}
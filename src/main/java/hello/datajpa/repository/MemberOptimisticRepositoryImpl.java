@@ -0,0 +1,70 @@
+package hello.datajpa.repository;
+
+import hello.datajpa.entity.Member;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityNotFoundException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+public class MemberOptimisticRepositoryImpl implements MemberOptimisticRepository {
+    private final EntityManager em;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+
+    public MemberOptimisticRepositoryImpl(EntityManager em,
+                                          PlatformTransactionManager transactionManager,
+                                          @Value("${datajpa.optimistic-lock.max-attempts:5}") int maxAttempts,
+                                          @Value("${datajpa.optimistic-lock.initial-backoff:10ms}") Duration initialBackoff,
+                                          @Value("${datajpa.optimistic-lock.max-backoff:200ms}") Duration maxBackoff) {
+        this.em = em;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoff.toMillis();
+        this.maxBackoffMillis = maxBackoff.toMillis();
+    }
+
+    @Override
+    public <R> R updateWithRetry(Long memberId, Function<Member, R> update) {
+        long backoffMillis = initialBackoffMillis;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> {
+                    Member member = em.find(Member.class, memberId);
+                    if (member == null) {
+                        throw new EntityNotFoundException("member not found: " + memberId);
+                    }
+                    return update.apply(member);
+                });
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                sleep(backoffMillis, e);
+                backoffMillis = Math.min(backoffMillis * 2, maxBackoffMillis);
+            }
+        }
+    }
+
+    /*
+        같이 충돌한 스레드끼리 동시에 다시 시도하지 않도록 backoff 의 절반은 랜덤으로 준다.
+     */
+    private void sleep(long backoffMillis, OptimisticLockingFailureException cause) {
+        long half = backoffMillis / 2;
+        try {
+            Thread.sleep(half + ThreadLocalRandom.current().nextLong(half + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+}
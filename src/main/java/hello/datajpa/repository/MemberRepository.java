@@ -7,24 +7,24 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.LockModeType;
 import javax.persistence.QueryHint;
-import java.util.Collection;
 import java.util.List;
 
-public interface MemberRepository extends JpaRepository<Member, Long> , MemberCustomRepository{
+public interface MemberRepository extends JpaRepository<Member, Long> , MemberCustomRepository, MemberKeysetRepository, MemberBatchRepository, MemberBulkRepository, MemberOptimisticRepository, MemberCountCachedRepository, MemberUsernameRepository, MemberColumnRepository {
     List<Member> findByUsernameAndAgeGreaterThan(String username, int age);
 
 //    @Query(name = "Member.findByUsername2")
+    @QueryHints(value = {
+            @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = "member-by-username")})
     List<Member> findByUsername2(@Param("username") String username);
 
     @Query("select m from Member m where m.username = :username and m.age = :age")
     List<Member> findMember(@Param("username") String username, @Param("age") int age);
 
-    @Query("select m from Member m where m.username in :usernames")
-    List<Member> findMembersByUsernames(@Param("usernames") Collection<String> usernames);
-
     @Query("select m.username from Member m")
     List<String> findUsernameList();
 
@@ -44,10 +44,16 @@ public interface MemberRepository extends JpaRepository<Member, Long> , MemberCu
 
     List<Member> findListByAge(int age, Pageable pageable);
 
-//    @Modifying(clearAutomatically = true)
-    @Modifying
-    @Query("update Member m set m.age = m.age+1")
-    int bulkAgePlus();
+    /*
+        동적 프로젝션
+        type에 인터페이스(MemberSummary)나 생성자 파라미터 이름이 엔티티 필드와 같은 클래스를 넘기면
+        엔티티 대신 해당 타입으로 필요한 컬럼만 조회한다.
+     */
+    <T> Page<T> findAllBy(Pageable pageable, Class<T> type);
+
+    <T> Page<T> findByAge(int age, Pageable pageable, Class<T> type);
+
+    <T> Slice<T> findSliceByAge(int age, Pageable pageable, Class<T> type);
 
     @Query("select m from Member m join fetch m.team")
     List<Member> findMemberFetchJoin();
@@ -56,6 +62,14 @@ public interface MemberRepository extends JpaRepository<Member, Long> , MemberCu
     @EntityGraph(attributePaths = {"team"})
     List<Member> findAll();
 
+    /*
+        findAll()의 @EntityGraph는 Pageable 오버로드에는 적용되지 않아서 따로 지정한다.
+        (member -> team 은 ToOne 이라 페이징과 같이 써도 된다)
+     */
+    @Override
+    @EntityGraph(attributePaths = {"team"})
+    Page<Member> findAll(Pageable pageable);
+
     @EntityGraph(attributePaths = {"team"})
     @Query("select m from Member m")
     List<Member> findMemberFetchJoin2();
@@ -64,6 +78,11 @@ public interface MemberRepository extends JpaRepository<Member, Long> , MemberCu
     @QueryHints(value = @QueryHint(name = "org.hibernate.readOnly", value = "true"))
     Member findReadOnlyById(Long id);
 
+    /*
+        쿼리 메서드는 SimpleJpaRepository 의 readOnly 트랜잭션을 따르기 때문에 select for update 는 @Transactional 로 덮어쓴다.
+        (readOnly 면 replica 로 라우팅되어 primary 의 행에 락이 걸리지 않는다)
+     */
+    @Transactional
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     Member findLockById(Long Id);
 }
@@ -0,0 +1,25 @@
+package hello.datajpa.repository;
+
+import hello.datajpa.dto.MemberDto;
+import hello.datajpa.entity.Member;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface MemberUsernameRepository {
+    /*
+        username 개수에 따라 조회 방법을 바꾼다.
+        chunk-size 이하: in 쿼리 한번 (in_clause_parameter_padding 으로 파라미터 수를 2의 거듭제곱으로 맞춰서 sql 종류를 줄인다)
+        temp-table-threshold 이하: chunk-size 씩 나눠서 in 쿼리 여러번
+        그보다 많으면: 임시 테이블에 username 을 배치로 넣고 조인
+            (쓰기 트랜잭션 밖에서 호출하면 새 트랜잭션에서 조회하므로 돌려받은 회원은 준영속 상태다)
+     */
+    List<Member> findMembersByUsernames(Collection<String> usernames);
+
+    /*
+        findByUsername2 와 같은 조회를 MemberUsernameCache 를 거쳐서 한다.
+        엔티티는 트랜잭션마다 달라야 하므로 dto(id, username, teamName)로 캐시한다.
+        findByUsername2 는 영속성 컨텍스트에 올라간 엔티티를 돌려줘야 해서 캐시로 감싸지 않고 그대로 둔다.
+     */
+    List<MemberDto> findMemberDtoByUsernameCached(String username);
+}
@@ -0,0 +1,116 @@
+package hello.datajpa.repository;
+
+import hello.datajpa.dto.MemberDto;
+import hello.datajpa.entity.Member;
+import hello.datajpa.support.MemberUsernameCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.sql.DatabaseMetaData;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+@Transactional(readOnly = true)
+public class MemberUsernameRepositoryImpl implements MemberUsernameRepository {
+    /*
+        H2 로컬 임시 테이블은 커넥션마다 따로 있고 TRANSACTIONAL 이면 만들때 커밋하지 않는다.
+        H2 전용 문법이라 다른 db 에서는 임시 테이블 경로를 쓰지 않는다. (tempTableSupported)
+     */
+    private static final String CREATE_TEMP_TABLE =
+            "create local temporary table if not exists tmp_member_username (username varchar(255) primary key) transactional";
+
+    private final EntityManager em;
+    private final JdbcTemplate jdbcTemplate;
+    private final MemberUsernameCache memberUsernameCache;
+    private final int chunkSize;
+    private final int tempTableThreshold;
+    private final boolean tempTableSupported;
+    private final TransactionTemplate tempTableTransactionTemplate;
+
+    public MemberUsernameRepositoryImpl(EntityManager em,
+                                        JdbcTemplate jdbcTemplate,
+                                        PlatformTransactionManager transactionManager,
+                                        MemberUsernameCache memberUsernameCache,
+                                        @Value("${datajpa.in-clause.chunk-size:512}") int chunkSize,
+                                        @Value("${datajpa.in-clause.temp-table-threshold:8192}") int tempTableThreshold) {
+        this.em = em;
+        this.jdbcTemplate = jdbcTemplate;
+        this.memberUsernameCache = memberUsernameCache;
+        this.chunkSize = chunkSize;
+        this.tempTableThreshold = tempTableThreshold;
+        this.tempTableSupported = isH2(jdbcTemplate);
+        this.tempTableTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.tempTableTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /*
+        in 쿼리는 readOnly 트랜잭션(replica)에서 조회한다.
+        임시 테이블은 insert 가 필요하므로 호출한 쪽이 쓰기 트랜잭션이면 그 트랜잭션에서,
+        아니면 그 경로만 새 쓰기 트랜잭션(REQUIRES_NEW, primary)을 열어서 조회한다.
+        (새 트랜잭션에서 조회한 회원은 커밋 후 준영속 상태로 돌려준다)
+     */
+    @Override
+    public List<Member> findMembersByUsernames(Collection<String> usernames) {
+        List<String> distinct = new ArrayList<>(new LinkedHashSet<>(usernames));
+        if (distinct.isEmpty()) {
+            return new ArrayList<>();
+        }
+        if (distinct.size() > tempTableThreshold && tempTableSupported) {
+            if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+                return findByTempTable(distinct);
+            }
+            return tempTableTransactionTemplate.execute(status -> findByTempTable(distinct));
+        }
+
+        List<Member> result = new ArrayList<>();
+        for (int from = 0; from < distinct.size(); from += chunkSize) {
+            result.addAll(findByIn(distinct.subList(from, Math.min(from + chunkSize, distinct.size()))));
+        }
+        return result;
+    }
+
+    @Override
+    public List<MemberDto> findMemberDtoByUsernameCached(String username) {
+        return memberUsernameCache.get(username);
+    }
+
+    private List<Member> findByIn(List<String> usernames) {
+        return em.createQuery("select m from Member m where m.username in :usernames", Member.class)
+                .setParameter("usernames", usernames)
+                .getResultList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Member> findByTempTable(List<String> usernames) {
+        jdbcTemplate.execute(CREATE_TEMP_TABLE);
+        try {
+            jdbcTemplate.batchUpdate("insert into tmp_member_username (username) values (?)", usernames, chunkSize,
+                    (ps, username) -> ps.setString(1, username));
+            return em.createNativeQuery(
+                            "select m.* from member m join tmp_member_username t on m.username = t.username", Member.class)
+                    .getResultList();
+        } finally {
+            jdbcTemplate.update("delete from tmp_member_username");
+        }
+    }
+
+    private static boolean isH2(JdbcTemplate jdbcTemplate) {
+        try {
+            String productName = JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(),
+                    DatabaseMetaData::getDatabaseProductName);
+            return "H2".equals(productName);
+        } catch (MetaDataAccessException e) {
+            return false;
+        }
+    }
+}
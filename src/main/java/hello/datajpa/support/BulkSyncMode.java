@@ -0,0 +1,10 @@
+package hello.datajpa.support;
+
+/*
+    벌크 연산 후 영속성 컨텍스트에 남아있는 엔티티를 어떻게 맞출지
+    REFRESH : db 값으로 다시 읽어온다. (들고 있는 참조를 계속 쓸 수 있다)
+    DETACH : 영속성 컨텍스트에서 뺀다. (다시 조회하면 db 값으로 읽는다)
+ */
+public enum BulkSyncMode {
+    REFRESH, DETACH
+}
@@ -0,0 +1,30 @@
+package hello.datajpa.support;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.hibernate.BaseSessionEventListener;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+    flush 시간 (hibernate.flush)
+    hibernate가 세션마다 하나씩 만들기 때문에 스프링 빈이 아니라 글로벌 레지스트리에 기록한다.
+    hibernate.session.events.auto 설정으로 등록
+ */
+public class FlushMetricsSessionListener extends BaseSessionEventListener {
+    private static final Timer FLUSH_TIMER = Timer.builder("hibernate.flush")
+            .publishPercentiles(0.5, 0.99)
+            .register(Metrics.globalRegistry);
+
+    private long flushStart;
+
+    @Override
+    public void flushStart() {
+        flushStart = System.nanoTime();
+    }
+
+    @Override
+    public void flushEnd(int numberOfEntities, int numberOfCollections) {
+        FLUSH_TIMER.record(System.nanoTime() - flushStart, TimeUnit.NANOSECONDS);
+    }
+}
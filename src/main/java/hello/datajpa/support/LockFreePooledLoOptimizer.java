@@ -0,0 +1,112 @@
+package hello.datajpa.support;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import org.hibernate.id.IdentifierGeneratorHelper;
+import org.hibernate.id.IntegralDataTypeHolder;
+import org.hibernate.id.enhanced.AccessCallback;
+import org.hibernate.id.enhanced.Optimizer;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/*
+    pooled-lo: 시퀀스 값 v 를 받으면 [v, v + incrementSize) 를 메모리에서 나눠준다.
+    hibernate 의 PooledLoOptimizer 는 generate 전체가 synchronized 라서 여러 스레드가 한 락을 두고 경합한다.
+    여기서는 현재 블록을 AtomicReference 로 들고 블록 안에서는 getAndIncrement 로만 나눠준다.
+
+    블록이 떨어졌을 때 여러 스레드가 동시에 시퀀스를 호출하면 먼저 교체한 블록만 쓰고
+    나머지 스레드는 자기가 받은 블록의 첫 값만 쓰고 나머지는 버린다. (id 에 빈 구간이 생길 수 있음)
+
+    SequenceStyleGenerator 의 optimizer 파라미터에 클래스 이름을 넘기면 hibernate 가 (Class, int) 생성자로 만든다.
+ */
+public class LockFreePooledLoOptimizer implements Optimizer {
+    private final Class<?> returnClass;
+    private final int incrementSize;
+    private final AtomicReference<Block> current = new AtomicReference<>(Block.EMPTY);
+    private volatile long lastSourceValue = -1;
+
+    private Counter sequenceCalls;
+    private Counter generatedIds;
+
+    public LockFreePooledLoOptimizer(Class<?> returnClass, int incrementSize) {
+        if (incrementSize < 1) {
+            throw new IllegalArgumentException("increment size must be positive: " + incrementSize);
+        }
+        this.returnClass = returnClass;
+        this.incrementSize = incrementSize;
+    }
+
+    /*
+        시퀀스 호출 수(id.sequence.calls)와 생성한 id 수(id.generated)를 센다.
+        1000건 저장당 시퀀스 호출 수 = id.sequence.calls / id.generated * 1000
+     */
+    public void bindMetrics(String sequenceName) {
+        sequenceCalls = Counter.builder("id.sequence.calls").tag("sequence", sequenceName).register(Metrics.globalRegistry);
+        generatedIds = Counter.builder("id.generated").tag("sequence", sequenceName).register(Metrics.globalRegistry);
+    }
+
+    @Override
+    public Serializable generate(AccessCallback callback) {
+        long value = nextValue(callback);
+        if (generatedIds != null) {
+            generatedIds.increment();
+        }
+        return toIdentifier(value);
+    }
+
+    private long nextValue(AccessCallback callback) {
+        Block block = current.get();
+        long value = block.next.getAndIncrement();
+        if (value < block.hi) {
+            return value;
+        }
+
+        long lo = callback.getNextValue().makeValue().longValue();
+        lastSourceValue = lo;
+        if (sequenceCalls != null) {
+            sequenceCalls.increment();
+        }
+        //실패하면 다른 스레드가 먼저 블록을 바꾼 것이므로 받은 값 하나만 쓴다.
+        current.compareAndSet(block, new Block(lo + 1, lo + incrementSize));
+        return lo;
+    }
+
+    private Serializable toIdentifier(long value) {
+        if (returnClass == Long.class) {
+            return value;
+        }
+        if (returnClass == Integer.class) {
+            return (int) value;
+        }
+        return IdentifierGeneratorHelper.getIntegralDataTypeHolder(returnClass).initialize(value).makeValue();
+    }
+
+    @Override
+    public IntegralDataTypeHolder getLastSourceValue() {
+        return IdentifierGeneratorHelper.getIntegralDataTypeHolder(returnClass).initialize(lastSourceValue);
+    }
+
+    @Override
+    public int getIncrementSize() {
+        return incrementSize;
+    }
+
+    @Override
+    public boolean applyIncrementSizeToSourceValues() {
+        return true;
+    }
+
+    private static class Block {
+        static final Block EMPTY = new Block(0, 0);
+
+        final AtomicLong next;
+        final long hi;
+
+        Block(long next, long hi) {
+            this.next = new AtomicLong(next);
+            this.hi = hi;
+        }
+    }
+}
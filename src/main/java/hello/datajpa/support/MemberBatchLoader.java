@@ -0,0 +1,134 @@
+package hello.datajpa.support;
+
+import hello.datajpa.entity.Member;
+import hello.datajpa.repository.MemberRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/*
+    findById 요청을 max-wait 동안 모아서 where member_id in (...) 한번으로 조회한다. (DataLoader 방식)
+    max-batch-size 만큼 모이면 기다리지 않고 바로 조회한다.
+    반환되는 회원은 준영속 상태이고 같은 id 를 요청한 스레드끼리 공유하므로 조회용으로만 사용한다.
+
+    member.loader.batch.fill : 배치 크기 / max-batch-size
+ */
+@Component
+public class MemberBatchLoader {
+    private final MemberRepository memberRepository;
+    private final Executor jdbcTaskExecutor;
+    private final int maxBatchSize;
+    private final long maxWaitMicros;
+    private final DistributionSummary batchFill;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "member-batch-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private List<PendingLoad> pending = new ArrayList<>();
+
+    public MemberBatchLoader(MemberRepository memberRepository,
+                             @Qualifier("jdbcTaskExecutor") Executor jdbcTaskExecutor,
+                             MeterRegistry meterRegistry,
+                             @Value("${datajpa.member-loader.max-batch-size:100}") int maxBatchSize,
+                             @Value("${datajpa.member-loader.max-wait:2ms}") Duration maxWait) {
+        this.memberRepository = memberRepository;
+        this.jdbcTaskExecutor = jdbcTaskExecutor;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitMicros = TimeUnit.NANOSECONDS.toMicros(maxWait.toNanos());
+        this.batchFill = DistributionSummary.builder("member.loader.batch.fill")
+                .description("batch size / max batch size")
+                .register(meterRegistry);
+    }
+
+    public CompletableFuture<Optional<Member>> load(Long id) {
+        CompletableFuture<Optional<Member>> future = new CompletableFuture<>();
+        List<PendingLoad> batch = null;
+        synchronized (this) {
+            pending.add(new PendingLoad(id, future));
+            if (pending.size() >= maxBatchSize) {
+                batch = drain();
+            } else if (pending.size() == 1) {
+                scheduler.schedule(this::flush, maxWaitMicros, TimeUnit.MICROSECONDS);
+            }
+        }
+        if (batch != null) {
+            dispatch(batch);
+        }
+        return future;
+    }
+
+    private void flush() {
+        List<PendingLoad> batch;
+        synchronized (this) {
+            batch = drain();
+        }
+        if (!batch.isEmpty()) {
+            dispatch(batch);
+        }
+    }
+
+    private List<PendingLoad> drain() {
+        List<PendingLoad> batch = pending;
+        pending = new ArrayList<>();
+        return batch;
+    }
+
+    private void dispatch(List<PendingLoad> batch) {
+        try {
+            jdbcTaskExecutor.execute(() -> resolve(batch));
+        } catch (RuntimeException e) {
+            batch.forEach(load -> load.future.completeExceptionally(e));
+        }
+    }
+
+    private void resolve(List<PendingLoad> batch) {
+        try {
+            Set<Long> ids = new LinkedHashSet<>();
+            batch.forEach(load -> ids.add(load.id));
+
+            Map<Long, Member> membersById = new HashMap<>();
+            for (Member member : memberRepository.findAllById(ids)) {
+                membersById.put(member.getId(), member);
+            }
+            batchFill.record((double) batch.size() / maxBatchSize);
+
+            batch.forEach(load -> load.future.complete(Optional.ofNullable(membersById.get(load.id))));
+        } catch (RuntimeException e) {
+            batch.forEach(load -> load.future.completeExceptionally(e));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+    }
+
+    private static class PendingLoad {
+        private final Long id;
+        private final CompletableFuture<Optional<Member>> future;
+
+        PendingLoad(Long id, CompletableFuture<Optional<Member>> future) {
+            this.id = id;
+            this.future = future;
+        }
+    }
+}
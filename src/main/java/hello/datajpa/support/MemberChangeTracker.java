@@ -0,0 +1,83 @@
+package hello.datajpa.support;
+
+import hello.datajpa.entity.MemberChangedEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+    트랜잭션 안에서 바뀐 회원을 모아두었다가 커밋 후에 MemberChangedEvent 를 한번만 발행한다.
+    회원마다 이벤트(@TransactionalEventListener)를 발행하면 리스너 수 x 회원 수 만큼 synchronization 이
+    커밋까지 남아 있어서 대량 저장(saveAllBatched) 때 메모리가 계속 늘어난다.
+    MAX_TRACKED 명이 넘으면 id 는 버리고 전체가 바뀐 것으로 본다. 롤백되면 발행하지 않는다.
+    트랜잭션 밖에서는 바로 발행한다.
+
+    받는 쪽은 이미 커밋된 뒤이므로 @EventListener 로 받는다.
+ */
+@Component
+public class MemberChangeTracker {
+    private static final int MAX_TRACKED = 1000;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public MemberChangeTracker(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    public void changed(Long memberId, String username) {
+        Changes changes = currentChanges();
+        if (changes == null) {
+            Map<Long, String> single = new HashMap<>();
+            single.put(memberId, username);
+            eventPublisher.publishEvent(MemberChangedEvent.of(single));
+            return;
+        }
+        changes.add(memberId, username);
+    }
+
+    /*
+        벌크 연산처럼 어떤 회원이 바뀌었는지 모를 때
+     */
+    public void changedAll() {
+        Changes changes = currentChanges();
+        if (changes == null) {
+            eventPublisher.publishEvent(MemberChangedEvent.all());
+            return;
+        }
+        changes.markAll();
+    }
+
+    /*
+        REQUIRES_NEW 안쪽 트랜잭션은 자기 Changes 를 따로 갖고 자기가 커밋될 때 발행한다. (TransactionResources)
+     */
+    private Changes currentChanges() {
+        return TransactionResources.getOrBind(this, Changes::new, changes -> eventPublisher.publishEvent(changes.toEvent()));
+    }
+
+    private static class Changes {
+        private final Map<Long, String> usernameById = new HashMap<>();
+        private boolean all;
+
+        void add(Long memberId, String username) {
+            if (all) {
+                return;
+            }
+            if (usernameById.size() >= MAX_TRACKED && !usernameById.containsKey(memberId)) {
+                markAll();
+                return;
+            }
+            usernameById.put(memberId, username);
+        }
+
+        void markAll() {
+            all = true;
+            usernameById.clear();
+        }
+
+        MemberChangedEvent toEvent() {
+            return all ? MemberChangedEvent.all() : MemberChangedEvent.of(usernameById);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package hello.datajpa.support;
+
+import hello.datajpa.entity.MemberChangedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+    회원 데이터의 버전 (ETag 용)
+    시작할 때 max(updatedDate) 로 초기화하고 회원이 바뀌면 커밋 후에 올린다.
+    요청마다 db 를 보지 않고 ETag 를 만들 수 있어서 변경이 없으면 304 를 db 조회 없이 돌려준다.
+
+    서버 메모리에만 있으므로 다른 서버에서 바꾼 내용은 알 수 없다. (서버가 여러 대면 공유 저장소가 필요)
+ */
+@Component
+public class MemberChangeVersion {
+    private final EntityManager em;
+    private final AtomicLong version = new AtomicLong();
+
+    public MemberChangeVersion(EntityManager em) {
+        this.em = em;
+    }
+
+    @PostConstruct
+    public void init() {
+        LocalDateTime lastUpdated = em.createQuery("select max(m.updatedDate) from Member m", LocalDateTime.class)
+                .getSingleResult();
+        if (lastUpdated != null) {
+            version.set(lastUpdated.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+    }
+
+    public long current() {
+        return version.get();
+    }
+
+    @EventListener
+    public void onMemberChanged(MemberChangedEvent event) {
+        long now = System.currentTimeMillis();
+        version.accumulateAndGet(now, (current, millis) -> Math.max(current + 1, millis));
+    }
+}
@@ -0,0 +1,58 @@
+package hello.datajpa.support;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import hello.datajpa.entity.MemberChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/*
+    페이징 count 쿼리 결과를 쿼리 + 파라미터 키로 ttl 동안 보관한다. (최대 maximum-size 개)
+    회원이 저장, 수정, 삭제되거나 벌크 연산이 커밋되면 전부 비운다. (MemberChangeTracker)
+    다른 서버의 변경은 ttl 이 지나야 반영된다.
+
+    커밋 전에 시작한 count 쿼리가 비운 뒤에 옛 값을 넣을 수 있으므로
+    비울 때마다 generation 을 올리고, 넣은 뒤 generation 이 바뀌었으면 넣은 값을 다시 지운다.
+ */
+@Component
+public class MemberCountCache {
+    private final Cache<String, Long> counts;
+    private final AtomicLong generation = new AtomicLong();
+
+    public MemberCountCache(@Value("${datajpa.count-cache.ttl:30s}") Duration ttl,
+                            @Value("${datajpa.count-cache.maximum-size:10000}") long maximumSize) {
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public long get(String key, LongSupplier countQuery) {
+        Long cached = counts.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        long generationBefore = generation.get();
+        long count = countQuery.getAsLong();
+        counts.put(key, count);
+        if (generation.get() != generationBefore) {
+            counts.invalidate(key);
+        }
+        return count;
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        counts.invalidateAll();
+    }
+
+    @EventListener
+    public void onMemberChanged(MemberChangedEvent event) {
+        invalidateAll();
+    }
+}
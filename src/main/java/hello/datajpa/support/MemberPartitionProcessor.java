@@ -0,0 +1,254 @@
+package hello.datajpa.support;
+
+import hello.datajpa.entity.Member;
+import hello.datajpa.support.PartitionResult.IdRange;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/*
+    회원을 member_id 순서로 chunk-size 건씩 나눠서 memberPartitionExecutor 의 스레드로 처리한다.
+    chunk 하나가 트랜잭션(영속성 컨텍스트) 하나이고 커밋할 때 변경감지로 update 된다.
+    낙관적 락 충돌처럼 일시적인 예외로 실패한 chunk 는 롤백되므로 backoff 후 처음부터 다시 시도하고,
+    max-attempts 번 실패하거나 다시 해도 같은 결과인 예외면 결과에 남긴다.
+
+    실행기는 모든 실행이 같이 쓰고 한번에 하나만 실행한다. (이미 실행 중이면 IllegalStateException)
+    parallelism 은 실행기 스레드 수(datajpa.partition.parallelism)를 넘을 수 없고, 커넥션 풀 크기보다 작게 두어야 한다.
+
+    member.partition.chunks (result=success, retry, failed)
+    member.partition.rows
+    member.partition.chunk.duration (result=success, retry, failed) : 시도마다 기록
+    member.partition.progress : 현재 실행의 완료된 chunk / 전체 chunk
+ */
+@Slf4j
+@Component
+public class MemberPartitionProcessor {
+    private final EntityManager em;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor executor;
+    private final int defaultParallelism;
+    private final int defaultChunkSize;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+
+    private final Counter succeededChunks;
+    private final Counter retriedChunks;
+    private final Counter failedChunks;
+    private final Counter processedRows;
+    private final Timer succeededTimer;
+    private final Timer retriedTimer;
+    private final Timer failedTimer;
+    private final AtomicReference<Progress> running = new AtomicReference<>();
+
+    public MemberPartitionProcessor(EntityManager em,
+                                    PlatformTransactionManager transactionManager,
+                                    MeterRegistry meterRegistry,
+                                    @Qualifier("memberPartitionExecutor") Executor executor,
+                                    @Value("${datajpa.partition.parallelism:4}") int defaultParallelism,
+                                    @Value("${datajpa.partition.chunk-size:1000}") int defaultChunkSize,
+                                    @Value("${datajpa.partition.max-attempts:3}") int maxAttempts,
+                                    @Value("${datajpa.partition.initial-backoff:10ms}") Duration initialBackoff,
+                                    @Value("${datajpa.partition.max-backoff:200ms}") Duration maxBackoff) {
+        this.em = em;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.executor = executor;
+        this.defaultParallelism = defaultParallelism;
+        this.defaultChunkSize = defaultChunkSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoff.toMillis();
+        this.maxBackoffMillis = maxBackoff.toMillis();
+
+        this.succeededChunks = chunkCounter(meterRegistry, "success");
+        this.retriedChunks = chunkCounter(meterRegistry, "retry");
+        this.failedChunks = chunkCounter(meterRegistry, "failed");
+        this.processedRows = Counter.builder("member.partition.rows").register(meterRegistry);
+        this.succeededTimer = chunkTimer(meterRegistry, "success");
+        this.retriedTimer = chunkTimer(meterRegistry, "retry");
+        this.failedTimer = chunkTimer(meterRegistry, "failed");
+        Gauge.builder("member.partition.progress", this, MemberPartitionProcessor::progress)
+                .description("completed chunks / total chunks of the current run")
+                .register(meterRegistry);
+    }
+
+    private static Counter chunkCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("member.partition.chunks").tag("result", result).register(meterRegistry);
+    }
+
+    private static Timer chunkTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("member.partition.chunk.duration").tag("result", result).register(meterRegistry);
+    }
+
+    private double progress() {
+        Progress progress = running.get();
+        return progress == null ? 1 : progress.ratio();
+    }
+
+    public PartitionResult process(Consumer<Member> action) {
+        return process(defaultParallelism, defaultChunkSize, action);
+    }
+
+    public PartitionResult process(int parallelism, int chunkSize, Consumer<Member> action) {
+        if (parallelism < 1 || chunkSize < 1) {
+            throw new IllegalArgumentException("parallelism and chunkSize must be positive");
+        }
+        Progress progress = new Progress();
+        if (!running.compareAndSet(null, progress)) {
+            throw new IllegalStateException("member partition is already running");
+        }
+        try {
+            return run(Math.min(parallelism, defaultParallelism), chunkSize, action, progress);
+        } finally {
+            running.set(null);
+        }
+    }
+
+    /*
+        실행 중인 chunk 가 parallelism 개를 넘지 않도록 하나가 끝나야 다음 chunk 를 넣는다.
+     */
+    private PartitionResult run(int parallelism, int chunkSize, Consumer<Member> action, Progress progress) {
+        List<IdRange> ranges = split(chunkSize);
+        progress.total.set(ranges.size());
+
+        AtomicLong rows = new AtomicLong();
+        List<IdRange> failed = Collections.synchronizedList(new ArrayList<>());
+        Semaphore permits = new Semaphore(parallelism);
+        List<CompletableFuture<Void>> futures = new ArrayList<>(ranges.size());
+        for (IdRange range : ranges) {
+            permits.acquireUninterruptibly();
+            futures.add(CompletableFuture.runAsync(() -> {
+                        long count = processWithRetry(range, action);
+                        if (count < 0) {
+                            failed.add(range);
+                        } else {
+                            rows.addAndGet(count);
+                        }
+                        progress.completed.incrementAndGet();
+                    }, executor)
+                    .whenComplete((ignored, e) -> permits.release()));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+        return new PartitionResult(ranges.size(), rows.get(), new ArrayList<>(failed));
+    }
+
+    /*
+        id 순서로 chunkSize 건씩 끊어서 [from, to) 범위를 만든다.
+        다음 범위는 from 부터 chunkSize 번째 다음 id 에서 시작하므로 id 사이가 비어 있어도
+        chunk 마다 건수가 같고 chunk 수는 (건수 / chunkSize) 를 넘지 않는다. (id 인덱스만 읽는다)
+        마지막 범위는 끝을 열어두어서 나눈 뒤에 추가된 회원도 처리한다.
+     */
+    private List<IdRange> split(int chunkSize) {
+        return transactionTemplate.execute(status -> {
+            List<IdRange> ranges = new ArrayList<>();
+            Long from = em.createQuery("select min(m.id) from Member m", Long.class).getSingleResult();
+            while (from != null) {
+                List<Long> next = em.createQuery("select m.id from Member m where m.id >= :from order by m.id", Long.class)
+                        .setParameter("from", from)
+                        .setFirstResult(chunkSize)
+                        .setMaxResults(1)
+                        .getResultList();
+                Long to = next.isEmpty() ? null : next.get(0);
+                ranges.add(new IdRange(from, to == null ? Long.MAX_VALUE : to));
+                from = to;
+            }
+            return ranges;
+        });
+    }
+
+    /*
+        처리한 건수, 실패하면 -1
+     */
+    private long processWithRetry(IdRange range, Consumer<Member> action) {
+        long backoffMillis = initialBackoffMillis;
+        for (int attempt = 1; ; attempt++) {
+            Timer.Sample sample = Timer.start();
+            try {
+                long count = transactionTemplate.execute(status -> {
+                    List<Member> members = em.createQuery(
+                                    "select m from Member m where m.id >= :from and m.id < :to order by m.id", Member.class)
+                            .setParameter("from", range.getFrom())
+                            .setParameter("to", range.getTo())
+                            .getResultList();
+                    members.forEach(action);
+                    return (long) members.size();
+                });
+                sample.stop(succeededTimer);
+                succeededChunks.increment();
+                processedRows.increment(count);
+                return count;
+            } catch (RuntimeException e) {
+                if (attempt >= maxAttempts || !isTransient(e) || !sleep(backoffMillis)) {
+                    sample.stop(failedTimer);
+                    failedChunks.increment();
+                    log.warn("member partition {} failed after {} attempts", range, attempt, e);
+                    return -1;
+                }
+                sample.stop(retriedTimer);
+                retriedChunks.increment();
+                backoffMillis = Math.min(backoffMillis * 2, maxBackoffMillis);
+            }
+        }
+    }
+
+    /*
+        낙관적 락 충돌, 락 타임아웃처럼 다시 하면 성공할 수 있는 예외만 다시 시도한다.
+        chunk 안에서 em 을 직접 쓰므로 JPA 예외는 스프링 예외로 바꿔서 판단한다. (커밋 때 예외는 이미 바뀌어 있다)
+     */
+    private static boolean isTransient(RuntimeException e) {
+        RuntimeException translated = e instanceof DataAccessException
+                ? e : EntityManagerFactoryUtils.convertJpaAccessExceptionIfPossible(e);
+        return translated instanceof TransientDataAccessException;
+    }
+
+    /*
+        같이 충돌한 chunk 끼리 동시에 다시 시도하지 않도록 backoff 의 절반은 랜덤으로 준다.
+        인터럽트되면 다시 시도하지 않는다.
+     */
+    private static boolean sleep(long backoffMillis) {
+        long half = backoffMillis / 2;
+        try {
+            Thread.sleep(half + ThreadLocalRandom.current().nextLong(half + 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static class Progress {
+        private final AtomicInteger total = new AtomicInteger();
+        private final AtomicInteger completed = new AtomicInteger();
+
+        private double ratio() {
+            int totalChunks = total.get();
+            return totalChunks == 0 ? 1 : (double) completed.get() / totalChunks;
+        }
+    }
+}
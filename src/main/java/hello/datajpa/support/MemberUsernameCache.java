@@ -0,0 +1,116 @@
+package hello.datajpa.support;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import hello.datajpa.dto.MemberDto;
+import hello.datajpa.entity.MemberChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/*
+    username -> 회원 dto 목록 캐시 (caffeine: W-TinyLFU 로 자주 쓰는 username 만 남긴다)
+    같은 username 을 동시에 처음 조회하면 한 스레드만 db 를 조회하고 나머지는 그 결과를 기다린다.
+
+    회원이 저장, 수정, 삭제되면 커밋 후에 해당 username 을 지운다.
+    수정 이벤트에는 바뀐 후의 username 만 있어서 바뀌기 전 username 은 id -> username 으로 찾아서 지운다.
+    벌크 연산은 어떤 회원이 바뀌었는지 모르므로 전부 지운다.
+    dto 에 팀 이름이 들어있으므로 팀 이름이 바뀌거나 팀이 삭제되어도 전부 지운다. (TeamEntityListener)
+
+    조회는 호출한 쪽 트랜잭션에 참여하지 않고 새 트랜잭션(REQUIRES_NEW)에서 한다.
+    호출한 쪽 트랜잭션에서 커밋 전의 회원을 캐시하면 롤백되었을 때 지울 이벤트가 없어서 ttl 동안 남기 때문이다.
+    (대신 트랜잭션 안에서 호출하면 커넥션을 하나 더 쓴다)
+    readOnly 로 열면 replica 로 라우팅되는데, 커밋 직후 비운 뒤 다시 채울 때 아직 반영 안 된 replica 에서
+    옛 값을 읽어 ttl 동안 남을 수 있으므로 readOnly 가 아닌 트랜잭션으로 primary 에서 읽는다.
+ */
+@Component
+public class MemberUsernameCache implements MeterBinder {
+    private final EntityManager em;
+    private final TransactionTemplate transactionTemplate;
+    private final LoadingCache<String, List<MemberDto>> cache;
+    private final Map<Long, String> usernameById = new ConcurrentHashMap<>();
+
+    public MemberUsernameCache(EntityManager em,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${datajpa.username-cache.maximum-size:10000}") long maximumSize,
+                               @Value("${datajpa.username-cache.ttl:10m}") Duration ttl) {
+        this.em = em;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .removalListener((String username, List<MemberDto> members, RemovalCause cause) -> forget(username, members))
+                .build(this::load);
+    }
+
+    /*
+        캐시된 dto 를 호출한 쪽에서 바꾸지 못하도록 복사해서 돌려준다.
+     */
+    public List<MemberDto> get(String username) {
+        return cache.get(username).stream()
+                .map(member -> new MemberDto(member.getId(), member.getUsername(), member.getTeamName()))
+                .collect(Collectors.toList());
+    }
+
+    private List<MemberDto> load(String username) {
+        List<MemberDto> members = transactionTemplate.execute(status -> em.createQuery(
+                        "select new hello.datajpa.dto.MemberDto(m.id, m.username, t.name)" +
+                                " from Member m left join m.team t where m.username = :username", MemberDto.class)
+                .setParameter("username", username)
+                .getResultList());
+        for (MemberDto member : members) {
+            usernameById.put(member.getId(), username);
+        }
+        return List.copyOf(members);
+    }
+
+    /*
+        removal listener 는 비동기로 호출되므로 그 사이 다시 로딩된 username 이면 그대로 둔다.
+     */
+    private void forget(String username, List<MemberDto> members) {
+        if (members == null || username == null || cache.asMap().containsKey(username)) {
+            return;
+        }
+        for (MemberDto member : members) {
+            usernameById.remove(member.getId(), username);
+        }
+    }
+
+    @EventListener
+    public void onMemberChanged(MemberChangedEvent event) {
+        if (event.isAll()) {
+            cache.invalidateAll();
+            return;
+        }
+        event.getUsernameById().forEach((memberId, username) -> {
+            String previousUsername = usernameById.get(memberId);
+            if (previousUsername != null) {
+                cache.invalidate(previousUsername);
+            }
+            if (username != null) {
+                cache.invalidate(username);
+            }
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "member-by-username", "layer", "in-process");
+    }
+}
@@ -0,0 +1,42 @@
+package hello.datajpa.support;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/*
+    MemberPartitionProcessor 실행 결과
+    failedChunks: max-attempts 번 모두 실패한 chunk 의 id 범위 [from, to)
+ */
+@Getter
+public class PartitionResult {
+    private final int totalChunks;
+    private final long processedRows;
+    private final List<IdRange> failedChunks;
+
+    public PartitionResult(int totalChunks, long processedRows, List<IdRange> failedChunks) {
+        this.totalChunks = totalChunks;
+        this.processedRows = processedRows;
+        this.failedChunks = failedChunks;
+    }
+
+    public boolean isSuccess() {
+        return failedChunks.isEmpty();
+    }
+
+    @Getter
+    public static class IdRange {
+        private final long from;
+        private final long to;
+
+        public IdRange(long from, long to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public String toString() {
+            return "[" + from + ", " + to + ")";
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package hello.datajpa.support;
+
+import org.hibernate.engine.spi.EntityKey;
+import org.hibernate.engine.spi.SessionImplementor;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/*
+    벌크 연산은 영속성 컨텍스트를 무시하고 바로 db에 반영되기 때문에
+    em.clear() 대신 영향을 받은 엔티티만 골라서 맞춰줄 때 사용한다.
+ */
+public abstract class PersistenceContextSupport {
+
+    /*
+        현재 영속성 컨텍스트에서 관리중인 entityClass 엔티티의 id
+     */
+    public static List<Object> managedIds(EntityManager em, Class<?> entityClass) {
+        String entityName = entityClass.getName();
+        List<Object> ids = new ArrayList<>();
+        for (EntityKey key : em.unwrap(SessionImplementor.class).getPersistenceContext().getEntitiesByKey().keySet()) {
+            if (key.getEntityName().equals(entityName)) {
+                ids.add(key.getIdentifier());
+            }
+        }
+        return ids;
+    }
+
+    /*
+        현재 영속성 컨텍스트에서 관리중인 entityClass 엔티티 (프록시가 아닌 실제 엔티티)
+     */
+    public static <T> List<T> managedEntities(EntityManager em, Class<T> entityClass) {
+        String entityName = entityClass.getName();
+        List<T> entities = new ArrayList<>();
+        for (Map.Entry<EntityKey, Object> entry : em.unwrap(SessionImplementor.class).getPersistenceContext().getEntitiesByKey().entrySet()) {
+            if (entry.getKey().getEntityName().equals(entityName)) {
+                entities.add(entityClass.cast(entry.getValue()));
+            }
+        }
+        return entities;
+    }
+
+    /*
+        ids 에 해당하는 관리중인 엔티티만 refresh 또는 detach 한다.
+        2차 캐시 region 은 hibernate가 벌크 JPQL 실행 시 이미 비워준다.
+     */
+    public static void synchronize(EntityManager em, Class<?> entityClass, Collection<?> ids, BulkSyncMode syncMode) {
+        for (Object id : ids) {
+            Object entity = em.getReference(entityClass, id);
+            if (syncMode == BulkSyncMode.REFRESH) {
+                em.refresh(entity);
+            } else {
+                em.detach(entity);
+            }
+        }
+    }
+}
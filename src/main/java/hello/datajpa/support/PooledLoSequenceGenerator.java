@@ -0,0 +1,41 @@
+package hello.datajpa.support;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Map;
+import java.util.Properties;
+
+/*
+    엔티티별 시퀀스 + LockFreePooledLoOptimizer
+
+    @GenericGenerator(name = "member_seq_generator", strategy = "hello.datajpa.support.PooledLoSequenceGenerator",
+            parameters = @Parameter(name = "sequence_name", value = "member_seq"))
+
+    할당 크기(시퀀스 increment)는 hibernate 설정으로 바꿀 수 있다. (spring.jpa.properties)
+    datajpa.id.allocation_size.{sequence_name} > datajpa.id.allocation_size > 50
+ */
+public class PooledLoSequenceGenerator extends SequenceStyleGenerator {
+    public static final String ALLOCATION_SIZE = "datajpa.id.allocation_size";
+    private static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        Map<String, Object> settings = serviceRegistry.getService(ConfigurationService.class).getSettings();
+        String sequenceName = params.getProperty(SEQUENCE_PARAM);
+
+        Object allocationSize = settings.getOrDefault(ALLOCATION_SIZE + "." + sequenceName,
+                settings.getOrDefault(ALLOCATION_SIZE, DEFAULT_ALLOCATION_SIZE));
+        params.setProperty(INCREMENT_PARAM, allocationSize.toString());
+        params.setProperty(OPT_PARAM, LockFreePooledLoOptimizer.class.getName());
+
+        super.configure(type, params, serviceRegistry);
+
+        if (getOptimizer() instanceof LockFreePooledLoOptimizer) {
+            ((LockFreePooledLoOptimizer) getOptimizer()).bindMetrics(getDatabaseStructure().getName());
+        }
+    }
+}
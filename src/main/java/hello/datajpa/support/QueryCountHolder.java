@@ -0,0 +1,31 @@
+package hello.datajpa.support;
+
+/*
+    현재 스레드에서 sql을 세고 있는 QueryCounter를 보관한다.
+
+    QueryCounter counter = QueryCountHolder.start();
+    try {
+        ...
+    } finally {
+        QueryCountHolder.stop();
+    }
+ */
+public abstract class QueryCountHolder {
+    private static final ThreadLocal<QueryCounter> COUNTER = new ThreadLocal<>();
+
+    public static QueryCounter start() {
+        QueryCounter counter = new QueryCounter();
+        COUNTER.set(counter);
+        return counter;
+    }
+
+    public static QueryCounter current() {
+        return COUNTER.get();
+    }
+
+    public static QueryCounter stop() {
+        QueryCounter counter = COUNTER.get();
+        COUNTER.remove();
+        return counter;
+    }
+}
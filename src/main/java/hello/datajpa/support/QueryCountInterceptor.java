@@ -0,0 +1,66 @@
+package hello.datajpa.support;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.List;
+
+/*
+    요청 단위로 sql 수를 세서 메트릭(sql.statements)으로 남기고
+    N+1 이 의심되거나 statement 예산을 넘으면 경고 로그와 sql.n_plus_one 카운터를 남긴다.
+ */
+@Slf4j
+@Component
+public class QueryCountInterceptor implements AsyncHandlerInterceptor {
+    private final MeterRegistry meterRegistry;
+    private final int nPlusOneThreshold;
+    private final int statementBudget;
+
+    public QueryCountInterceptor(MeterRegistry meterRegistry,
+                                 @Value("${datajpa.query-count.n-plus-one-threshold:3}") int nPlusOneThreshold,
+                                 @Value("${datajpa.query-count.statement-budget:20}") int statementBudget) {
+        this.meterRegistry = meterRegistry;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+        this.statementBudget = statementBudget;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        QueryCountHolder.start();
+        return true;
+    }
+
+    /*
+        비동기 요청은 톰캣 스레드가 먼저 반환되므로 여기서 정리하고
+        결과를 응답할 때(async dispatch) preHandle 부터 다시 센다.
+     */
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        QueryCountHolder.stop();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        QueryCounter counter = QueryCountHolder.stop();
+        if (counter == null) {
+            return;
+        }
+
+        String uri = String.valueOf(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE));
+        meterRegistry.summary("sql.statements", "uri", uri).record(counter.getCount());
+
+        List<String> candidates = counter.getNPlusOneCandidates(nPlusOneThreshold);
+        if (!candidates.isEmpty()) {
+            meterRegistry.counter("sql.n_plus_one", "uri", uri).increment();
+            log.warn("N+1 suspected uri={} statements={} repeated={}", uri, counter.getCount(), candidates);
+        } else if (counter.getCount() > statementBudget) {
+            log.warn("statement budget exceeded uri={} statements={} budget={}", uri, counter.getCount(), statementBudget);
+        }
+    }
+}
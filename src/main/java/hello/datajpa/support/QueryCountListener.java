@@ -0,0 +1,34 @@
+package hello.datajpa.support;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.JdbcEventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+
+/*
+    p6spy가 감싸고 있는 DataSource에서 statement가 실행될 때마다 호출된다.
+    QueryCountHolder.start() 가 호출된 스레드에서만 센다.
+ */
+@Component
+public class QueryCountListener extends JdbcEventListener {
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        QueryCounter counter = QueryCountHolder.current();
+        if (counter != null) {
+            counter.record(statementInformation.getSql(), statementInformation.getSqlWithValues());
+        }
+    }
+
+    /*
+        배치는 같은 sql이 값만 바뀌어서 나가는게 정상이므로 N+1 판단에서 제외한다.
+     */
+    @Override
+    public void onAfterExecuteBatch(StatementInformation statementInformation, long timeElapsedNanos, int[] updateCounts, SQLException e) {
+        QueryCounter counter = QueryCountHolder.current();
+        if (counter != null) {
+            counter.recordBatch();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package hello.datajpa.support;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+    하나의 범위(요청, 트랜잭션, 테스트)에서 실행된 sql 통계
+    같은 sql이 바인딩 값만 바뀌어서 여러번 실행되면 N+1 후보로 본다.
+    한 스레드에서만 사용되므로 동기화하지 않는다.
+ */
+public class QueryCounter {
+    private static final int MAX_TRACKED_VALUES = 100;
+
+    private final Map<String, SqlStats> statsBySql = new LinkedHashMap<>();
+    private int count;
+    private int batchCount;
+
+    void record(String sql, String sqlWithValues) {
+        count++;
+        statsBySql.computeIfAbsent(sql, key -> new SqlStats()).record(sqlWithValues);
+    }
+
+    void recordBatch() {
+        count++;
+        batchCount++;
+    }
+
+    /*
+        db로 나간 statement 수 (jdbc batch는 한번으로 센다)
+     */
+    public int getCount() {
+        return count;
+    }
+
+    public int getBatchCount() {
+        return batchCount;
+    }
+
+    /*
+        실행된 sql 종류별로 처음 실행된 sql (바인딩 값 포함, 실행 계획 확인용)
+     */
+    public List<String> getExecutedSql() {
+        List<String> executed = new ArrayList<>();
+        for (SqlStats stats : statsBySql.values()) {
+            executed.add(stats.firstSqlWithValues);
+        }
+        return executed;
+    }
+
+    /*
+        바인딩 값이 다른 채로 threshold 번 이상 반복된 sql
+     */
+    public List<String> getNPlusOneCandidates(int threshold) {
+        List<String> candidates = new ArrayList<>();
+        for (Map.Entry<String, SqlStats> entry : statsBySql.entrySet()) {
+            if (entry.getValue().distinctValues.size() >= threshold) {
+                candidates.add(entry.getKey());
+            }
+        }
+        return candidates;
+    }
+
+    private static class SqlStats {
+        private final Set<String> distinctValues = new HashSet<>();
+        private String firstSqlWithValues;
+
+        void record(String sqlWithValues) {
+            if (firstSqlWithValues == null) {
+                firstSqlWithValues = sqlWithValues;
+            }
+            if (distinctValues.size() < MAX_TRACKED_VALUES) {
+                distinctValues.add(sqlWithValues);
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package hello.datajpa.support;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+    읽기 전용 트랜잭션(@Transactional(readOnly = true))은 replica 로, 나머지는 primary 로 보낸다.
+    트랜잭션이 시작된 뒤에 커넥션을 얻어야 readOnly 여부를 알 수 있으므로 LazyConnectionDataSourceProxy 로 감싸서 쓴다.
+
+    replica 는 primary 보다 늦게 반영되므로 같은 스레드에서 쓰기를 한 뒤 lagTolerance 동안은 읽기도 primary 로 보낸다.
+    (자기가 쓴 데이터를 바로 다시 읽는 경우)
+
+    주의: 쓰기 시각은 ThreadLocal 이고 실제로 쓴 시점이 아니라 readOnly 가 아닌 트랜잭션이 커넥션을 얻은 시점에 찍는다.
+    - 쓰기 없이 끝난 트랜잭션도 이후 읽기를 primary 로 보낸다.
+    - 다른 스레드나 다음 요청(다른 톰캣 스레드)에서는 보장되지 않는다. (비동기 작업, 리다이렉트 후 조회 등)
+    요청 사이에서도 자기 쓰기를 읽어야 한다면 세션/쿠키에 쓰기 시각을 남기는 식으로 따로 처리해야 한다.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+    public enum LoadBalance {
+        ROUND_ROBIN, LEAST_LOADED
+    }
+
+    private static final String PRIMARY = "primary";
+    private static final ThreadLocal<Long> LAST_WRITE_NANOS = new ThreadLocal<>();
+
+    private final List<DataSource> replicas;
+    private final LoadBalance loadBalance;
+    private final long lagToleranceNanos;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<DataSource> replicas,
+                                      LoadBalance loadBalance, Duration lagTolerance) {
+        this.replicas = List.copyOf(replicas);
+        this.loadBalance = loadBalance;
+        this.lagToleranceNanos = lagTolerance.toNanos();
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < this.replicas.size(); i++) {
+            targets.put(i, this.replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                LAST_WRITE_NANOS.set(System.nanoTime());
+            }
+            return PRIMARY;
+        }
+        if (replicas.isEmpty() || withinLagTolerance()) {
+            return PRIMARY;
+        }
+        return loadBalance == LoadBalance.LEAST_LOADED ? leastLoaded() : roundRobin();
+    }
+
+    private boolean withinLagTolerance() {
+        Long lastWrite = LAST_WRITE_NANOS.get();
+        return lastWrite != null && System.nanoTime() - lastWrite < lagToleranceNanos;
+    }
+
+    private int roundRobin() {
+        return Math.floorMod(next.getAndIncrement(), replicas.size());
+    }
+
+    /*
+        hikari 풀이면 사용중 + 대기중 커넥션이 가장 적은 replica, 아니면 round robin
+     */
+    private int leastLoaded() {
+        int start = roundRobin();
+        int selected = start;
+        int minLoad = Integer.MAX_VALUE;
+        for (int i = 0; i < replicas.size(); i++) {
+            int index = (start + i) % replicas.size();
+            int load = load(replicas.get(index));
+            if (load < minLoad) {
+                minLoad = load;
+                selected = index;
+            }
+        }
+        return selected;
+    }
+
+    private static int load(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource) {
+            HikariPoolMXBean pool = ((HikariDataSource) dataSource).getHikariPoolMXBean();
+            if (pool != null) {
+                return pool.getActiveConnections() + pool.getThreadsAwaitingConnection();
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,144 @@
+package hello.datajpa.support;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import hello.datajpa.dto.MemberColumns;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.data.domain.Slice;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.BaseStream;
+
+/*
+    리포지토리 메소드 호출마다
+    - repository.invocations : 실행 시간 (p50, p99)
+    - repository.rows : 반환한 row 수
+    - repository.entities.loaded : 호출 동안 영속성 컨텍스트에 새로 올라온 엔티티 수
+    를 남긴다.
+    미터는 메소드별로 처음 한번만 만들고 이후에는 꺼내서 기록만 한다.
+ */
+public class RepositoryMetricsInterceptor implements MethodInterceptor {
+    private final String repositoryName;
+    private final Supplier<MeterRegistry> meterRegistry;
+    private final Supplier<EntityManagerFactory> entityManagerFactory;
+    private final Map<Method, MethodMeters> meters = new ConcurrentHashMap<>();
+
+    public RepositoryMetricsInterceptor(Class<?> repositoryInterface,
+                                        Supplier<MeterRegistry> meterRegistry,
+                                        Supplier<EntityManagerFactory> entityManagerFactory) {
+        this.repositoryName = repositoryInterface.getSimpleName();
+        this.meterRegistry = meterRegistry;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        MethodMeters methodMeters = meters.computeIfAbsent(invocation.getMethod(), this::createMeters);
+
+        int entitiesBefore = managedEntityCount();
+        long start = System.nanoTime();
+        try {
+            Object result = invocation.proceed();
+            methodMeters.success.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+            int rows = rows(result);
+            if (rows >= 0) {
+                methodMeters.rows.record(rows);
+            }
+            if (entitiesBefore >= 0) {
+                methodMeters.entitiesLoaded.record(Math.max(0, managedEntityCount() - entitiesBefore));
+            }
+            return result;
+        } catch (Throwable e) {
+            methodMeters.failure.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private MethodMeters createMeters(Method method) {
+        return new MethodMeters(meterRegistry.get(), repositoryName, method.getName());
+    }
+
+    /*
+        현재 스레드에 묶인 영속성 컨텍스트의 엔티티 수, 없으면 -1
+     */
+    private int managedEntityCount() {
+        EntityManager em = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory.get());
+        if (em == null) {
+            return -1;
+        }
+        return em.unwrap(SessionImplementor.class).getPersistenceContext().getEntitiesByKey().size();
+    }
+
+    /*
+        알 수 없는 반환 타입(Stream, 숫자 등)은 -1
+     */
+    private static int rows(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Slice) {
+            return ((Slice<?>) result).getNumberOfElements();
+        }
+        if (result instanceof Optional) {
+            return ((Optional<?>) result).isPresent() ? 1 : 0;
+        }
+        //기본형 배열 조회(findAllIds, findAllAges)와 열 단위 조회(findAllColumns)
+        if (result.getClass().isArray()) {
+            return Array.getLength(result);
+        }
+        if (result instanceof MemberColumns) {
+            return ((MemberColumns) result).size();
+        }
+        if (result instanceof Number || result instanceof Boolean || result instanceof Iterable
+                || result instanceof BaseStream) {
+            return -1;
+        }
+        return 1;
+    }
+
+    private static class MethodMeters {
+        private final Timer success;
+        private final Timer failure;
+        private final DistributionSummary rows;
+        private final DistributionSummary entitiesLoaded;
+
+        MethodMeters(MeterRegistry registry, String repository, String method) {
+            this.success = timer(registry, repository, method, "success");
+            this.failure = timer(registry, repository, method, "failure");
+            this.rows = DistributionSummary.builder("repository.rows")
+                    .tag("repository", repository)
+                    .tag("method", method)
+                    .register(registry);
+            this.entitiesLoaded = DistributionSummary.builder("repository.entities.loaded")
+                    .tag("repository", repository)
+                    .tag("method", method)
+                    .register(registry);
+        }
+
+        private static Timer timer(MeterRegistry registry, String repository, String method, String state) {
+            return Timer.builder("repository.invocations")
+                    .tag("repository", repository)
+                    .tag("method", method)
+                    .tag("state", state)
+                    .publishPercentiles(0.5, 0.99)
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package hello.datajpa.support;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.data.util.Lazy;
+
+import javax.persistence.EntityManagerFactory;
+
+/*
+    hello.datajpa.repository 패키지의 리포지토리 프록시에 RepositoryMetricsInterceptor를 붙인다.
+    BeanPostProcessor는 일찍 만들어지기 때문에 MeterRegistry, EntityManagerFactory는 처음 쓸 때 가져온다.
+ */
+public class RepositoryMetricsPostProcessor implements BeanPostProcessor {
+    private static final String REPOSITORY_PACKAGE = "hello.datajpa.repository";
+
+    private final Lazy<MeterRegistry> meterRegistry;
+    private final Lazy<EntityManagerFactory> entityManagerFactory;
+
+    public RepositoryMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry,
+                                          ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        this.meterRegistry = Lazy.of(meterRegistry::getObject);
+        this.entityManagerFactory = Lazy.of(entityManagerFactory::getObject);
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport) {
+            ((RepositoryFactoryBeanSupport<?, ?, ?>) bean).addRepositoryFactoryCustomizer(factory ->
+                    factory.addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) -> {
+                        Class<?> repositoryInterface = repositoryInformation.getRepositoryInterface();
+                        if (repositoryInterface.getPackageName().equals(REPOSITORY_PACKAGE)) {
+                            proxyFactory.addAdvice(new RepositoryMetricsInterceptor(
+                                    repositoryInterface, meterRegistry, entityManagerFactory));
+                        }
+                    }));
+        }
+        return bean;
+    }
+}
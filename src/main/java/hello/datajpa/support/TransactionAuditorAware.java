@@ -0,0 +1,32 @@
+package hello.datajpa.support;
+
+import org.springframework.data.domain.AuditorAware;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+    등록자, 수정자를 트랜잭션마다 한번만 만든다. (원래는 엔티티 저장, 수정마다 UUID.randomUUID())
+    UUID.randomUUID()는 SecureRandom 을 쓰기 때문에 느리고 스레드끼리 경합한다.
+    실제 사용자가 아닌 임의의 값이므로 ThreadLocalRandom 으로 만든다.
+ */
+public class TransactionAuditorAware implements AuditorAware<String> {
+    private final TransactionScopedValue<Optional<String>> auditor =
+            new TransactionScopedValue<>(() -> Optional.of(randomUuid().toString()));
+
+    @Override
+    public Optional<String> getCurrentAuditor() {
+        return auditor.get();
+    }
+
+    /*
+        version 4 (random) UUID
+     */
+    static UUID randomUuid() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long mostSigBits = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long leastSigBits = (random.nextLong() & ~(0xC000L << 48)) | (0x8000L << 48);
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
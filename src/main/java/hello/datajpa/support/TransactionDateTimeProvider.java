@@ -0,0 +1,21 @@
+package hello.datajpa.support;
+
+import org.springframework.data.auditing.DateTimeProvider;
+
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAccessor;
+import java.util.Optional;
+
+/*
+    등록일, 수정일을 트랜잭션 시작 후 처음 요청된 시각 하나로 통일한다.
+    (한 트랜잭션에서 저장, 수정한 엔티티는 모두 같은 시각을 가진다)
+ */
+public class TransactionDateTimeProvider implements DateTimeProvider {
+    private final TransactionScopedValue<Optional<TemporalAccessor>> now =
+            new TransactionScopedValue<>(() -> Optional.of(LocalDateTime.now()));
+
+    @Override
+    public Optional<TemporalAccessor> getNow() {
+        return now.get();
+    }
+}
@@ -0,0 +1,60 @@
+package hello.datajpa.support;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/*
+    현재 트랜잭션에 묶인 값을 key 로 꺼내고 없으면 만들어서 묶는다.
+    트랜잭션이 끝나면 풀고, 커밋됐으면 afterCommit 을 호출한다.
+
+    REQUIRES_NEW 로 바깥 트랜잭션이 정지되면 값도 같이 풀었다가(suspend) 재개될 때 다시 묶는다(resume).
+    그래서 안쪽 트랜잭션은 바깥 값을 보지 않고 자기 값을 따로 만든다.
+ */
+public abstract class TransactionResources {
+
+    /*
+        트랜잭션 동기화가 없으면(트랜잭션 밖) null
+     */
+    public static <T> T getOrBind(Object key, Supplier<T> factory) {
+        return getOrBind(key, factory, value -> {
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> T getOrBind(Object key, Supplier<T> factory, Consumer<T> afterCommit) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        T value = (T) TransactionSynchronizationManager.getResource(key);
+        if (value == null) {
+            T newValue = factory.get();
+            TransactionSynchronizationManager.bindResource(key, newValue);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void suspend() {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(key);
+                }
+
+                @Override
+                public void resume() {
+                    TransactionSynchronizationManager.bindResource(key, newValue);
+                }
+
+                @Override
+                public void afterCommit() {
+                    afterCommit.accept(newValue);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(key);
+                }
+            });
+            value = newValue;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,21 @@
+package hello.datajpa.support;
+
+import java.util.function.Supplier;
+
+/*
+    트랜잭션마다 한번만 계산하고 트랜잭션이 끝나면 버리는 값
+    REQUIRES_NEW 로 시작한 안쪽 트랜잭션은 따로 계산한다. (TransactionResources)
+    트랜잭션 밖에서는 매번 계산한다.
+ */
+public class TransactionScopedValue<T> {
+    private final Supplier<T> supplier;
+
+    public TransactionScopedValue(Supplier<T> supplier) {
+        this.supplier = supplier;
+    }
+
+    public T get() {
+        T value = TransactionResources.getOrBind(this, supplier);
+        return value != null ? value : supplier.get();
+    }
+}
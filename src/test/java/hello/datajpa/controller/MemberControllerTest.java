@@ -0,0 +1,126 @@
+package hello.datajpa.controller;
+
+import hello.datajpa.entity.Member;
+import hello.datajpa.repository.MemberRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/*
+    ETag 는 커밋 후에 바뀌므로 테스트 트랜잭션으로 묶지 않는다.
+    keyset 페이징 size 상한을 확인하기 위해 max-page-size 를 낮춘다.
+ */
+@SpringBootTest(properties = "spring.data.web.pageable.max-page-size=5")
+@AutoConfigureMockMvc
+class MemberControllerTest {
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Test
+    void notModified() throws Exception {
+        //given
+        String etag = scrollEtag();
+
+        //when //then
+        mockMvc.perform(get("/members/by-age/31").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void modifiedAfterSave() throws Exception {
+        //given
+        String etag = scrollEtag();
+
+        //when
+        memberRepository.save(new Member("etagMember", 31, null));
+
+        //then
+        mockMvc.perform(get("/members/by-age/31").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void modifiedAfterBulkUpdate() throws Exception {
+        //given
+        String etag = scrollEtag();
+
+        //when
+        memberRepository.bulkAgePlus();
+
+        //then
+        mockMvc.perform(get("/members/by-age/31").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void findMember() throws Exception {
+        //given
+        Member member = memberRepository.save(new Member("batchLoaded", 10, null));
+
+        //when
+        MvcResult result = mockMvc.perform(get("/members/{id}", member.getId()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string("batchLoaded"));
+    }
+
+    @Test
+    void findMemberNotFound() throws Exception {
+        //when
+        MvcResult result = mockMvc.perform(get("/members/{id}", Long.MAX_VALUE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void keysetSizeMustBePositive() throws Exception {
+        //when //then
+        mockMvc.perform(get("/members/keyset").param("size", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void keysetSizeClampedToMaxPageSize() throws Exception {
+        //given
+        for (int i = 0; i < 6; i++) {
+            memberRepository.save(new Member("keysetClamp" + i, 10, null));
+        }
+
+        //when //then
+        mockMvc.perform(get("/members/keyset").param("size", "100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(5))
+                .andExpect(jsonPath("$.hasNext").value(true));
+    }
+
+    private String scrollEtag() throws Exception {
+        String etag = mockMvc.perform(get("/members/by-age/31"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotNull();
+        return etag;
+    }
+}
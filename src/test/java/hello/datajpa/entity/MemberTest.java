@@ -76,4 +76,21 @@ class MemberTest {
         System.out.println("foundMember = " + foundMember);
         //then
     }
-}
\ No newline at end of file
+
+    @Test
+    void auditingPerTransaction() {
+        //given
+        Member memberA = new Member("auditA");
+        Member memberB = new Member("auditB");
+
+        //when
+        memberRepository.save(memberA);
+        memberRepository.save(memberB);
+        em.flush();
+
+        //then 같은 트랜잭션이면 등록자, 등록일이 같다
+        assertThat(memberA.getCreatedDate()).isNotNull();
+        assertThat(memberA.getCreatedDate()).isEqualTo(memberB.getCreatedDate());
+        assertThat(memberA.getCreatedBy()).isEqualTo(memberB.getCreatedBy());
+    }
+}
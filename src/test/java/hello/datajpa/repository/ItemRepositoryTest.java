@@ -5,6 +5,9 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.*;
 
 
@@ -22,4 +25,19 @@ class ItemRepositoryTest {
 
         //then
     }
-}
\ No newline at end of file
+
+    @Test
+    void upsertAll() {
+        //given
+        itemRepository.upsertAll(List.of(new Item("upsert1", "item1"), new Item("upsert2", "item2")), 100);
+
+        //when
+        int count = itemRepository.upsertAll(List.of(new Item("upsert2", "item2-updated"), new Item("upsert3", "item3")), 100);
+
+        //then
+        assertThat(count).isEqualTo(2);
+        assertThat(itemRepository.findById("upsert2").get().getName()).isEqualTo("item2-updated");
+        assertThat(itemRepository.findById("upsert3").get().isNew()).isFalse();
+        assertThat(itemRepository.findAllById(List.of("upsert1", "upsert2", "upsert3"))).hasSize(3);
+    }
+}
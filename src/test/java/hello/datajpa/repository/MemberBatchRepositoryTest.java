@@ -0,0 +1,73 @@
+package hello.datajpa.repository;
+
+import hello.datajpa.entity.Member;
+import org.hibernate.Session;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.Rollback;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+@Rollback(value = false)
+class MemberBatchRepositoryTest {
+    @Autowired
+    MemberRepository memberRepository;
+
+    @PersistenceContext
+    EntityManager em;
+
+    Statistics statistics;
+
+    @BeforeEach
+    void enableStatistics() {
+        statistics = em.unwrap(Session.class).getSessionFactory().getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @AfterEach
+    void disableStatistics() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    void saveAllBatched() {
+        //given
+        int total = 1000;
+        int chunkSize = 100;
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < total; i++) {
+            members.add(new Member("batch" + i, i % 50, null));
+        }
+
+        //when
+        long start = System.nanoTime();
+        int savedCount = memberRepository.saveAllBatched(members, chunkSize);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("saveAllBatched " + total + " members = " + elapsedMillis + "ms, statements = " + statistics.getPrepareStatementCount());
+
+        //then
+        assertThat(savedCount).isEqualTo(total);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(total);
+        assertThat(em.contains(members.get(0))).isFalse();
+
+        /*
+            insert 배치: total / chunkSize
+            시퀀스 조회: allocationSize(50) 마다 한번 + pooled 최초 조회 한번
+         */
+        long expectedMaxStatements = total / chunkSize + total / 50 + 2;
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(expectedMaxStatements);
+    }
+}
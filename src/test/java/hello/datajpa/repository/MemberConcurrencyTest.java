@@ -0,0 +1,82 @@
+package hello.datajpa.repository;
+
+import hello.datajpa.entity.Member;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/*
+    같은 회원 한명을 여러 스레드가 동시에 수정해도
+    비관적 락(findLockById), 낙관적 락(@Version + 재시도) 모두 갱신이 유실되지 않는지 확인한다.
+    처리량과 p99 비교는 LockContentionBenchmark (jmh) 에서 한다.
+    스레드마다 자기 트랜잭션에서 실행되어야 하므로 테스트를 트랜잭션으로 묶지 않는다.
+ */
+@SpringBootTest(properties = {
+        "datajpa.optimistic-lock.max-attempts=100",
+        "datajpa.optimistic-lock.initial-backoff=1ms",
+        "datajpa.optimistic-lock.max-backoff=20ms"})
+class MemberConcurrencyTest {
+    private static final int THREADS = 8;
+    private static final int UPDATES_PER_THREAD = 25;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Test
+    void pessimisticLock() throws Exception {
+        Member member = memberRepository.save(new Member("pessimistic", 0, null));
+
+        run(() -> transactionTemplate.executeWithoutResult(status -> {
+            Member locked = memberRepository.findLockById(member.getId());
+            locked.setAge(locked.getAge() + 1);
+        }));
+
+        assertThat(memberRepository.findById(member.getId()).get().getAge()).isEqualTo(THREADS * UPDATES_PER_THREAD);
+    }
+
+    @Test
+    void optimisticLock() throws Exception {
+        Member member = memberRepository.save(new Member("optimistic", 0, null));
+
+        run(() -> memberRepository.updateWithRetry(member.getId(), found -> {
+            found.setAge(found.getAge() + 1);
+            return null;
+        }));
+
+        Member updated = memberRepository.findById(member.getId()).get();
+        assertThat(updated.getAge()).isEqualTo(THREADS * UPDATES_PER_THREAD);
+        assertThat(updated.getVersion()).isEqualTo((long) THREADS * UPDATES_PER_THREAD);
+    }
+
+    private void run(Runnable update) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                for (int j = 0; j < UPDATES_PER_THREAD; j++) {
+                    update.run();
+                }
+            }));
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
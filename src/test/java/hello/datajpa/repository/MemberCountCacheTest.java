@@ -0,0 +1,69 @@
+package hello.datajpa.repository;
+
+import hello.datajpa.entity.Member;
+import hello.datajpa.support.QueryCountHolder;
+import hello.datajpa.support.QueryCounter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import static org.assertj.core.api.Assertions.*;
+
+/*
+    count 캐시 무효화는 커밋 후에 일어나기 때문에 테스트 트랜잭션 없이 저장할 때마다 커밋한다.
+ */
+@SpringBootTest
+class MemberCountCacheTest {
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Test
+    void cachedCount() {
+        //given
+        for (int i = 0; i < 5; i++) {
+            memberRepository.save(new Member("countCache" + i, 88, null));
+        }
+        PageRequest pageRequest = PageRequest.of(0, 2);
+
+        //when
+        QueryCounter first = QueryCountHolder.start();
+        Page<Member> firstPage;
+        try {
+            firstPage = memberRepository.findByAgeWithCachedCount(88, pageRequest);
+        } finally {
+            QueryCountHolder.stop();
+        }
+        QueryCounter second = QueryCountHolder.start();
+        Page<Member> secondPage;
+        try {
+            secondPage = memberRepository.findByAgeWithCachedCount(88, pageRequest);
+        } finally {
+            QueryCountHolder.stop();
+        }
+
+        //then
+        assertThat(firstPage.getTotalElements()).isEqualTo(5);
+        assertThat(secondPage.getTotalElements()).isEqualTo(5);
+        assertThat(first.getCount()).isEqualTo(2); // content + count
+        assertThat(second.getCount()).isEqualTo(1); // content
+    }
+
+    @Test
+    void invalidateOnSave() {
+        //given
+        for (int i = 0; i < 3; i++) {
+            memberRepository.save(new Member("countInvalidate" + i, 89, null));
+        }
+        PageRequest pageRequest = PageRequest.of(0, 2);
+        assertThat(memberRepository.findByAgeWithCachedCount(89, pageRequest).getTotalElements()).isEqualTo(3);
+
+        //when
+        memberRepository.save(new Member("countInvalidate3", 89, null));
+        Page<Member> page = memberRepository.findByAgeWithCachedCount(89, pageRequest);
+
+        //then
+        assertThat(page.getTotalElements()).isEqualTo(4);
+    }
+}
@@ -0,0 +1,67 @@
+package hello.datajpa.repository;
+
+import hello.datajpa.entity.Member;
+import hello.datajpa.support.QueryPlanVerifier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/*
+    username, age 로 조회하는 쿼리가 member 테이블을 풀 스캔하지 않는지 실행 계획으로 확인한다.
+    row 가 datajpa.query-plan.max-scan-rows 이하인 테이블의 풀 스캔은 허용한다.
+    테스트에서만 쓰는 값이라 application.yaml 에 두지 않고 기본값(100)을 쓴다. (-Ddatajpa.query-plan.max-scan-rows 로 바꿀 수 있다)
+ */
+@SpringBootTest
+class MemberQueryPlanTest {
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Value("${datajpa.query-plan.max-scan-rows:100}")
+    long maxScanRows;
+
+    QueryPlanVerifier verifier;
+
+    @BeforeEach
+    void setUp() {
+        verifier = new QueryPlanVerifier(jdbcTemplate, maxScanRows);
+        if (memberRepository.count() <= maxScanRows) {
+            List<Member> members = new ArrayList<>();
+            for (int i = 0; i < maxScanRows * 2; i++) {
+                members.add(new Member("plan" + i, i % 50, null));
+            }
+            memberRepository.saveAllBatched(members, 100);
+        }
+    }
+
+    @Test
+    void findByUsernameAndAgeGreaterThan() {
+        assertThat(verifier.tableScans(() -> memberRepository.findByUsernameAndAgeGreaterThan("plan1", 0))).isEmpty();
+    }
+
+    @Test
+    void findByUsername2() {
+        assertThat(verifier.tableScans(() -> memberRepository.findByUsername2("plan1"))).isEmpty();
+    }
+
+    @Test
+    void findMembersByUsernames() {
+        assertThat(verifier.tableScans(() -> memberRepository.findMembersByUsernames(List.of("plan1", "plan2")))).isEmpty();
+    }
+
+    @Test
+    void findByAge() {
+        assertThat(verifier.tableScans(() -> memberRepository.findByAge(10, PageRequest.of(0, 3)))).isEmpty();
+    }
+}
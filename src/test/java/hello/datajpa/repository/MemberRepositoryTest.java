@@ -1,8 +1,14 @@
 package hello.datajpa.repository;
 
+import hello.datajpa.dto.MemberColumns;
 import hello.datajpa.dto.MemberDto;
+import hello.datajpa.dto.MemberSummary;
 import hello.datajpa.entity.Member;
 import hello.datajpa.entity.Team;
+import hello.datajpa.support.BulkSyncMode;
+import hello.datajpa.support.QueryCountHolder;
+import hello.datajpa.support.QueryCounter;
+import org.hibernate.Session;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -16,7 +22,10 @@ import org.springframework.transaction.annotation.Transactional;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.*;
 
@@ -284,6 +293,50 @@ class MemberRepositoryTest {
         assertThat(page.size()).isEqualTo(3);
     }
 
+    @Test
+    void projectionPaging() {
+        //given
+        memberRepository.save(new Member("projection1", 77, null));
+        memberRepository.save(new Member("projection2", 77, null));
+        memberRepository.save(new Member("projection3", 77, null));
+
+        em.flush();
+        em.clear();
+
+        PageRequest pageRequest = PageRequest.of(0, 2, Sort.by(Sort.Direction.ASC, "username"));
+
+        //when
+        Page<MemberSummary> page = memberRepository.findByAge(77, pageRequest, MemberSummary.class);
+        Slice<MemberSummary> slice = memberRepository.findSliceByAge(77, pageRequest, MemberSummary.class);
+
+        //then
+        assertThat(page.getContent()).extracting("username").containsExactly("projection1", "projection2");
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(slice.hasNext()).isTrue();
+        assertThat(em.unwrap(Session.class).getStatistics().getEntityCount()).isEqualTo(0);
+    }
+
+    @Test
+    void keysetPaging() {
+        //given
+        Member member1 = memberRepository.save(new Member("member1", 10, null));
+        Member member2 = memberRepository.save(new Member("member2", 10, null));
+        Member member3 = memberRepository.save(new Member("member3", 10, null));
+        Member member4 = memberRepository.save(new Member("member4", 10, null));
+        Member member5 = memberRepository.save(new Member("member5", 10, null));
+
+        //when
+        Slice<Member> first = memberRepository.findMembersAfter(member1.getId() - 1, 3);
+        Long lastId = first.getContent().get(first.getContent().size() - 1).getId();
+        Slice<Member> second = memberRepository.findMembersAfter(lastId, 3);
+
+        //then
+        assertThat(first.getContent()).containsExactly(member1, member2, member3);
+        assertThat(first.hasNext()).isTrue();
+        assertThat(second.getContent()).containsExactly(member4, member5);
+        assertThat(second.hasNext()).isFalse();
+    }
+
     @Test
     void bulkUpdate() {
         //given
@@ -303,6 +356,42 @@ class MemberRepositoryTest {
         assertThat(member.getAge()).isEqualTo(11);
     }
 
+    @Test
+    void bulkUpdateWithRefresh() {
+        //given
+        Member memberA = new Member("AAA", 10, null);
+        Member memberB = new Member("BBB", 20, null);
+        memberRepository.save(memberA);
+        memberRepository.save(memberB);
+
+        //when
+        int resultCount = memberRepository.bulkAgePlus(15, BulkSyncMode.REFRESH);
+
+        //then
+        assertThat(resultCount).isGreaterThanOrEqualTo(1);
+        assertThat(em.contains(memberA)).isTrue();
+        assertThat(em.contains(memberB)).isTrue();
+        assertThat(memberA.getAge()).isEqualTo(10);
+        assertThat(memberB.getAge()).isEqualTo(21);
+    }
+
+    @Test
+    void bulkUpdateWithDetach() {
+        //given
+        Member memberA = new Member("AAA", 10, null);
+        Member memberB = new Member("BBB", 20, null);
+        memberRepository.save(memberA);
+        memberRepository.save(memberB);
+
+        //when
+        memberRepository.bulkAgePlus(15, BulkSyncMode.DETACH);
+
+        //then
+        assertThat(em.contains(memberA)).isTrue();
+        assertThat(em.contains(memberB)).isFalse();
+        assertThat(memberRepository.findById(memberB.getId()).get().getAge()).isEqualTo(21);
+    }
+
     @Test
     void fetchJoin() {
         //given
@@ -460,4 +549,150 @@ class MemberRepositoryTest {
 
         //then
     }
-}
\ No newline at end of file
+
+    @Test
+    void streamMemberDto() {
+        //given
+        Team teamA = new Team("teamA");
+        teamRepository.save(teamA);
+        memberRepository.save(new Member("stream1", 10, teamA));
+        memberRepository.save(new Member("stream2", 20, null));
+
+        em.flush();
+        em.clear();
+
+        //when
+        List<MemberDto> memberDtos;
+        try (Stream<MemberDto> stream = memberRepository.streamMemberDto()) {
+            memberDtos = stream
+                    .filter(memberDto -> memberDto.getUsername().startsWith("stream"))
+                    .collect(Collectors.toList());
+        }
+
+        //then
+        assertThat(memberDtos).extracting("username").containsExactlyInAnyOrder("stream1", "stream2");
+        assertThat(memberDtos).extracting("teamName").containsExactlyInAnyOrder("teamA", null);
+        assertThat(em.unwrap(Session.class).getStatistics().getEntityCount()).isEqualTo(0);
+    }
+
+    @Test
+    void nPlusOne() {
+        //given
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ids.add(memberRepository.save(new Member("nplus" + i, 10, null)).getId());
+        }
+
+        em.flush();
+        em.clear();
+
+        //when
+        QueryCounter counter = QueryCountHolder.start();
+        try {
+            for (Long id : ids) {
+                memberRepository.findById(id);
+            }
+        } finally {
+            QueryCountHolder.stop();
+        }
+
+        //then
+        assertThat(counter.getCount()).isEqualTo(3);
+        assertThat(counter.getNPlusOneCandidates(3)).hasSize(1);
+    }
+
+    @Test
+    void batchFetch() {
+        //given
+        List<Team> teams = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            teams.add(new Team("batchFetchTeam" + i));
+        }
+        teamRepository.saveAll(teams);
+
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            members.add(new Member("batchFetch" + i, 10, teams.get(i % teams.size())));
+        }
+        memberRepository.saveAll(members);
+
+        em.flush();
+        em.clear();
+
+        //when
+        QueryCounter counter = QueryCountHolder.start();
+        try {
+            List<Member> foundMembers = em.createQuery("select m from Member m where m.username like 'batchFetch%'", Member.class)
+                    .getResultList();
+            for (Member member : foundMembers) {
+                member.getTeam().getName();
+            }
+            for (Member member : foundMembers) {
+                member.getTeam().getMembers().size();
+            }
+        } finally {
+            QueryCountHolder.stop();
+        }
+
+        //then
+        /*
+            회원 조회 1 + 팀 배치 조회 1 + 팀의 회원 서브쿼리 조회 1
+         */
+        assertThat(counter.getCount()).isLessThanOrEqualTo(3);
+        assertThat(counter.getNPlusOneCandidates(3)).isEmpty();
+    }
+
+    @Test
+    void pagingWithEntityGraph() {
+        //given
+        for (int i = 0; i < 3; i++) {
+            Team team = teamRepository.save(new Team("graphTeam" + i));
+            memberRepository.save(new Member("graph" + i, 10, team));
+        }
+
+        em.flush();
+        em.clear();
+
+        //when
+        QueryCounter counter = QueryCountHolder.start();
+        try {
+            Page<Member> page = memberRepository.findAll(PageRequest.of(0, 10));
+            for (Member member : page) {
+                if (member.getTeam() != null) {
+                    System.out.println("member.getTeam().getName() = " + member.getTeam().getName());
+                }
+            }
+        } finally {
+            QueryCountHolder.stop();
+        }
+
+        //then
+        assertThat(counter.getNPlusOneCandidates(2)).isEmpty();
+        assertThat(counter.getCount()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void primitiveColumns() {
+        //given
+        Member member = memberRepository.save(new Member("columns", 66, null));
+
+        //when (쓰기 트랜잭션이면 jdbc 로 읽기 전에 flush 한다)
+        long[] ids = memberRepository.findAllIds();
+        int[] ages = memberRepository.findAllAges();
+        MemberColumns columns = memberRepository.findAllColumns();
+
+        //then
+        int index = Arrays.binarySearch(ids, member.getId());
+        assertThat(index).isGreaterThanOrEqualTo(0);
+        assertThat(ages).hasSameSizeAs(ids);
+        assertThat(ages[index]).isEqualTo(66);
+        assertThat(columns.size()).isEqualTo(ids.length);
+        assertThat(columns.id(index)).isEqualTo(member.getId());
+        assertThat(columns.username(index)).isEqualTo("columns");
+        assertThat(columns.age(index)).isEqualTo(66);
+        assertThat(columns.ids()).hasSize(columns.size());
+        assertThat(columns.usernames()).hasSize(columns.size());
+        assertThat(columns.usernames()[index]).isEqualTo("columns");
+        assertThat(columns.ages()).hasSize(columns.size());
+    }
+}
@@ -0,0 +1,104 @@
+package hello.datajpa.repository;
+
+import hello.datajpa.entity.Member;
+import hello.datajpa.support.QueryCountHolder;
+import hello.datajpa.support.QueryCounter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.Rollback;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/*
+    chunk, 임시 테이블 경로를 작은 username 수로 확인하기 위해 기준 값을 낮춘다.
+ */
+@SpringBootTest(properties = {
+        "datajpa.in-clause.chunk-size=4",
+        "datajpa.in-clause.temp-table-threshold=10"})
+@Transactional
+@Rollback(value = false)
+class MemberUsernameRepositoryTest {
+    @Autowired
+    MemberRepository memberRepository;
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Test
+    void chunkedIn() {
+        //given
+        saveMembers("inChunk", 20);
+        List<String> usernames = usernames("inChunk", 6);
+        usernames.add("inChunk0"); //중복
+        usernames.add("inChunkNone"); //없는 회원
+
+        //when
+        QueryCounter counter = QueryCountHolder.start();
+        List<Member> members;
+        try {
+            members = memberRepository.findMembersByUsernames(usernames);
+        } finally {
+            QueryCountHolder.stop();
+        }
+
+        //then 중복 제거 후 7개 -> 4 + 3
+        assertThat(members).extracting("username").containsExactlyInAnyOrderElementsOf(usernames("inChunk", 6));
+        assertThat(counter.getCount()).isEqualTo(2);
+    }
+
+    @Test
+    void tempTable() {
+        //given
+        saveMembers("inTemp", 20);
+
+        //when
+        List<Member> members = memberRepository.findMembersByUsernames(usernames("inTemp", 15));
+
+        //then
+        assertThat(members).extracting("username").containsExactlyInAnyOrderElementsOf(usernames("inTemp", 15));
+    }
+
+    /*
+        트랜잭션 밖에서 호출하면 readOnly 트랜잭션이라 임시 테이블 경로만 새 쓰기 트랜잭션에서 조회한다.
+     */
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void tempTableOutsideTransaction() {
+        //given
+        List<Member> members = new ArrayList<>();
+        for (String username : usernames("inTempNoTx", 20)) {
+            members.add(new Member(username, 0, null));
+        }
+        memberRepository.saveAll(members);
+
+        //when
+        List<Member> found = memberRepository.findMembersByUsernames(usernames("inTempNoTx", 15));
+
+        //then
+        assertThat(found).extracting("username").containsExactlyInAnyOrderElementsOf(usernames("inTempNoTx", 15));
+    }
+
+    private void saveMembers(String prefix, int count) {
+        for (int i = 0; i < count; i++) {
+            memberRepository.save(new Member(prefix + i, i, null));
+        }
+        em.flush();
+        em.clear();
+    }
+
+    private static List<String> usernames(String prefix, int count) {
+        List<String> usernames = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            usernames.add(prefix + i);
+        }
+        return usernames;
+    }
+}
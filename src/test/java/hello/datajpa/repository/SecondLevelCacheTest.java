@@ -0,0 +1,105 @@
+package hello.datajpa.repository;
+
+import hello.datajpa.entity.Member;
+import hello.datajpa.entity.Team;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.*;
+
+/*
+    2차 캐시는 트랜잭션이 커밋돼야 반영되므로 테스트 전체를 트랜잭션으로 묶지 않는다.
+ */
+@SpringBootTest
+@ActiveProfiles("cache")
+class SecondLevelCacheTest {
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    TeamRepository teamRepository;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void entityCache() {
+        //given
+        Team team = teamRepository.save(new Team("cachedTeam"));
+        Member member = memberRepository.save(new Member("cachedMember", 10, team));
+        //저장할 때의 insert, 시퀀스 조회는 빼고 조회만 센다
+        statistics.clear();
+
+        //when
+        memberRepository.findById(member.getId()).get();
+        teamRepository.findById(team.getId()).get();
+
+        //then
+        assertThat(statistics.getDomainDataRegionStatistics("member").getHitCount()).isEqualTo(1);
+        assertThat(statistics.getDomainDataRegionStatistics("team").getHitCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(0);
+    }
+
+    @Test
+    void collectionCacheEvictedOnNewMember() {
+        //given
+        Team team = teamRepository.save(new Team("collectionCached"));
+        memberRepository.save(new Member("collectionMember1", 10, team));
+        assertThat(membersOf(team.getId())).isEqualTo(1);
+
+        //when (mappedBy 쪽 컬렉션이라 auto_evict_collection_cache 가 없으면 캐시된 목록이 그대로 남는다)
+        memberRepository.save(new Member("collectionMember2", 10, team));
+
+        //then
+        assertThat(membersOf(team.getId())).isEqualTo(2);
+    }
+
+    private int membersOf(Long teamId) {
+        return transactionTemplate.execute(status -> teamRepository.findById(teamId).get().getMembers().size());
+    }
+
+    @Test
+    void queryCache() {
+        //given
+        memberRepository.save(new Member("queryCached", 10, null));
+
+        //when
+        memberRepository.findByUsername2("queryCached");
+        memberRepository.findByUsername2("queryCached");
+
+        //then
+        assertThat(statistics.getQueryRegionStatistics("member-by-username").getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void bulkUpdateEvictsRegion() {
+        //given
+        Member member = memberRepository.save(new Member("bulkCached", 10, null));
+        memberRepository.findByUsername2("bulkCached");
+
+        //when
+        transactionTemplate.executeWithoutResult(status -> memberRepository.bulkAgePlus());
+
+        //then
+        Member foundMember = memberRepository.findById(member.getId()).get();
+        assertThat(foundMember.getAge()).isEqualTo(11);
+        assertThat(memberRepository.findByUsername2("bulkCached").get(0).getAge()).isEqualTo(11);
+        assertThat(statistics.getQueryRegionStatistics("member-by-username").getHitCount()).isEqualTo(0);
+    }
+}
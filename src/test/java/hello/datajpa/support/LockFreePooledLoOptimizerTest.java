@@ -0,0 +1,89 @@
+package hello.datajpa.support;
+
+import org.hibernate.id.IdentifierGeneratorHelper;
+import org.hibernate.id.IntegralDataTypeHolder;
+import org.hibernate.id.enhanced.AccessCallback;
+import org.junit.jupiter.api.Test;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+class LockFreePooledLoOptimizerTest {
+    static final int INCREMENT_SIZE = 50;
+
+    /*
+        increment by 50 인 시퀀스 흉내
+     */
+    static class SequenceCallback implements AccessCallback {
+        final AtomicLong sequence = new AtomicLong(1);
+        final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public IntegralDataTypeHolder getNextValue() {
+            calls.incrementAndGet();
+            return IdentifierGeneratorHelper.getIntegralDataTypeHolder(Long.class)
+                    .initialize(sequence.getAndAdd(INCREMENT_SIZE));
+        }
+
+        @Override
+        public String getTenantIdentifier() {
+            return null;
+        }
+    }
+
+    @Test
+    void pooledLo() {
+        //given
+        LockFreePooledLoOptimizer optimizer = new LockFreePooledLoOptimizer(Long.class, INCREMENT_SIZE);
+        SequenceCallback callback = new SequenceCallback();
+
+        //when
+        List<Serializable> ids = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            ids.add(optimizer.generate(callback));
+        }
+
+        //then 1000건당 시퀀스 호출 20번, 1부터 빈틈 없이
+        assertThat(callback.calls.get()).isEqualTo(1000 / INCREMENT_SIZE);
+        assertThat(ids.get(0)).isEqualTo(1L);
+        assertThat(ids.get(999)).isEqualTo(1000L);
+    }
+
+    @Test
+    void concurrentGenerate() throws Exception {
+        //given
+        LockFreePooledLoOptimizer optimizer = new LockFreePooledLoOptimizer(Long.class, INCREMENT_SIZE);
+        SequenceCallback callback = new SequenceCallback();
+        Set<Serializable> ids = ConcurrentHashMap.newKeySet();
+        int threadCount = 8;
+        int perThread = 10_000;
+
+        //when
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    ids.add(optimizer.generate(callback));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        //then 중복 없음
+        assertThat(ids).hasSize(threadCount * perThread);
+    }
+}
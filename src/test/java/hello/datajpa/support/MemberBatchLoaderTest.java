@@ -0,0 +1,51 @@
+package hello.datajpa.support;
+
+import hello.datajpa.entity.Member;
+import hello.datajpa.repository.MemberRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.*;
+
+/*
+    배치가 한번에 모이도록 대기 시간을 넉넉하게 준다.
+ */
+@SpringBootTest(properties = "datajpa.member-loader.max-wait=200ms")
+class MemberBatchLoaderTest {
+    @Autowired
+    MemberBatchLoader memberBatchLoader;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    void coalesceLoads() {
+        //given
+        Member memberA = memberRepository.save(new Member("loaderA", 10, null));
+        Member memberB = memberRepository.save(new Member("loaderB", 20, null));
+        DistributionSummary batchFill = meterRegistry.find("member.loader.batch.fill").summary();
+        long batchesBefore = batchFill.count();
+
+        //when
+        CompletableFuture<Optional<Member>> loadA = memberBatchLoader.load(memberA.getId());
+        CompletableFuture<Optional<Member>> loadB = memberBatchLoader.load(memberB.getId());
+        CompletableFuture<Optional<Member>> loadAAgain = memberBatchLoader.load(memberA.getId());
+        CompletableFuture<Optional<Member>> loadMissing = memberBatchLoader.load(-1L);
+
+        //then
+        assertThat(loadA.join().get().getUsername()).isEqualTo("loaderA");
+        assertThat(loadB.join().get().getUsername()).isEqualTo("loaderB");
+        assertThat(loadAAgain.join().get().getUsername()).isEqualTo("loaderA");
+        assertThat(loadMissing.join()).isEmpty();
+        assertThat(batchFill.count() - batchesBefore).isEqualTo(1);
+    }
+}
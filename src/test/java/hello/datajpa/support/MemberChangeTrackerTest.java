@@ -0,0 +1,98 @@
+package hello.datajpa.support;
+
+import hello.datajpa.entity.Member;
+import hello.datajpa.entity.MemberChangedEvent;
+import hello.datajpa.repository.MemberRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.*;
+
+/*
+    커밋할 때 트랜잭션마다 이벤트가 한번만 나가는지 확인한다.
+ */
+@SpringBootTest
+@RecordApplicationEvents
+class MemberChangeTrackerTest {
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    ApplicationEvents applicationEvents;
+
+    @Test
+    void onePerTransaction() {
+        //when
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < 3; i++) {
+                memberRepository.save(new Member("tracker" + i, 10, null));
+            }
+        });
+
+        //then
+        List<MemberChangedEvent> events = memberChangedEvents();
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).getUsernameById().values()).containsExactlyInAnyOrder("tracker0", "tracker1", "tracker2");
+    }
+
+    @Test
+    void bulkUpdate() {
+        //when
+        transactionTemplate.executeWithoutResult(status -> memberRepository.bulkAgePlus());
+
+        //then
+        List<MemberChangedEvent> events = memberChangedEvents();
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).isAll()).isTrue();
+    }
+
+    @Test
+    void noEventOnRollback() {
+        //when
+        transactionTemplate.executeWithoutResult(status -> {
+            memberRepository.save(new Member("trackerRollback", 10, null));
+            memberRepository.flush();
+            status.setRollbackOnly();
+        });
+
+        //then
+        assertThat(memberChangedEvents()).isEmpty();
+    }
+
+    @Test
+    void innerTransactionPublishesOnItsOwnCommit() {
+        //given
+        Member member = memberRepository.save(new Member("trackerInner", 10, null));
+        applicationEvents.clear();
+
+        //when 안쪽(REQUIRES_NEW) 트랜잭션은 커밋되고 바깥 트랜잭션은 롤백된다
+        transactionTemplate.executeWithoutResult(status -> {
+            memberRepository.save(new Member("trackerOuter", 10, null));
+            memberRepository.updateWithRetry(member.getId(), found -> {
+                found.setUsername("trackerInnerRenamed");
+                return null;
+            });
+            status.setRollbackOnly();
+        });
+
+        //then 안쪽 변경만 발행된다
+        List<MemberChangedEvent> events = memberChangedEvents();
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).getUsernameById()).containsOnlyKeys(member.getId());
+        assertThat(events.get(0).getUsernameById()).containsEntry(member.getId(), "trackerInnerRenamed");
+    }
+
+    private List<MemberChangedEvent> memberChangedEvents() {
+        return applicationEvents.stream(MemberChangedEvent.class).collect(Collectors.toList());
+    }
+}
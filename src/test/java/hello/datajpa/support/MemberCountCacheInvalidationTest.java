@@ -0,0 +1,33 @@
+package hello.datajpa.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/*
+    count 쿼리 도중에 비워지면 그 결과는 캐시에 남지 않아야 한다.
+ */
+class MemberCountCacheInvalidationTest {
+
+    @Test
+    void staleCountNotCachedAfterConcurrentInvalidation() {
+        //given
+        MemberCountCache cache = new MemberCountCache(Duration.ofMinutes(1), 100);
+        AtomicInteger queries = new AtomicInteger();
+
+        //when 첫 count 쿼리가 끝나기 전에 커밋 이벤트로 비워진다
+        long stale = cache.get("key", () -> {
+            cache.invalidateAll();
+            return 1L + queries.getAndIncrement();
+        });
+        long fresh = cache.get("key", () -> 1L + queries.getAndIncrement());
+
+        //then
+        assertThat(stale).isEqualTo(1);
+        assertThat(fresh).isEqualTo(2);
+        assertThat(queries).hasValue(2);
+    }
+}
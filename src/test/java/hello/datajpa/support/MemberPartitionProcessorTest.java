@@ -0,0 +1,130 @@
+package hello.datajpa.support;
+
+import hello.datajpa.entity.Member;
+import hello.datajpa.repository.MemberRepository;
+import hello.datajpa.support.PartitionResult.IdRange;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.*;
+
+/*
+    chunk 마다 별도 트랜잭션으로 커밋되므로 테스트 트랜잭션 없이 실행한다.
+ */
+@SpringBootTest
+class MemberPartitionProcessorTest {
+    @Autowired
+    MemberPartitionProcessor memberPartitionProcessor;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    void process() {
+        //given
+        List<Member> members = saveMembers("partition", 50);
+        AtomicBoolean failedOnce = new AtomicBoolean();
+        Long failingId = members.get(25).getId();
+
+        long total = memberRepository.count();
+
+        //when (한 chunk 는 처음 한번 충돌해서 다시 시도한다)
+        PartitionResult result = memberPartitionProcessor.process(3, 10, member -> {
+            if (!member.getUsername().startsWith("partition")) {
+                return;
+            }
+            if (member.getId().equals(failingId) && failedOnce.compareAndSet(false, true)) {
+                throw new OptimisticLockingFailureException("first attempt fails");
+            }
+            member.setAge(member.getAge() + 1);
+        });
+
+        //then 실패한 chunk 는 롤백 후 다시 처리되므로 한번씩만 증가한다
+        assertThat(result.isSuccess()).isTrue();
+        assertThat(result.getTotalChunks()).isEqualTo((int) ((total + 9) / 10));
+        assertThat(result.getProcessedRows()).isGreaterThanOrEqualTo(50);
+        assertThat(failedOnce).isTrue();
+        for (Member member : memberRepository.findAllById(ids(members))) {
+            assertThat(member.getAge()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void exhaustedRetries() {
+        //given
+        List<Member> members = saveMembers("partitionConflict", 5);
+        Long failingId = members.get(2).getId();
+        double retriesBefore = chunks("retry");
+        double failuresBefore = chunks("failed");
+        long failedAttemptsBefore = attempts("failed");
+
+        //when (max-attempts 번 모두 충돌한다)
+        PartitionResult result = memberPartitionProcessor.process(2, 10, member -> {
+            if (member.getId().equals(failingId)) {
+                throw new OptimisticLockingFailureException("always conflicts");
+            }
+        });
+
+        //then
+        assertThat(result.isSuccess()).isFalse();
+        assertThat(result.getFailedChunks()).hasSize(1);
+        IdRange failed = result.getFailedChunks().get(0);
+        assertThat(failingId).isBetween(failed.getFrom(), failed.getTo() - 1);
+        assertThat(chunks("retry") - retriesBefore).isEqualTo(2);
+        assertThat(chunks("failed") - failuresBefore).isEqualTo(1);
+        assertThat(attempts("failed") - failedAttemptsBefore).isEqualTo(1);
+    }
+
+    @Test
+    void noRetryOnNonTransientFailure() {
+        //given
+        List<Member> members = saveMembers("partitionBroken", 5);
+        Long failingId = members.get(2).getId();
+        double retriesBefore = chunks("retry");
+
+        //when (다시 해도 같은 결과인 예외)
+        PartitionResult result = memberPartitionProcessor.process(2, 10, member -> {
+            if (member.getId().equals(failingId)) {
+                throw new IllegalArgumentException("broken member");
+            }
+        });
+
+        //then
+        assertThat(result.getFailedChunks()).hasSize(1);
+        assertThat(chunks("retry")).isEqualTo(retriesBefore);
+    }
+
+    private double chunks(String result) {
+        return meterRegistry.get("member.partition.chunks").tag("result", result).counter().count();
+    }
+
+    private long attempts(String result) {
+        return meterRegistry.get("member.partition.chunk.duration").tag("result", result).timer().count();
+    }
+
+    private List<Member> saveMembers(String prefix, int count) {
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            members.add(new Member(prefix + i, 0, null));
+        }
+        return memberRepository.saveAll(members);
+    }
+
+    private static List<Long> ids(List<Member> members) {
+        List<Long> ids = new ArrayList<>();
+        for (Member member : members) {
+            ids.add(member.getId());
+        }
+        return ids;
+    }
+}
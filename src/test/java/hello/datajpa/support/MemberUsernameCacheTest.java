@@ -0,0 +1,110 @@
+package hello.datajpa.support;
+
+import hello.datajpa.dto.MemberDto;
+import hello.datajpa.entity.Member;
+import hello.datajpa.entity.Team;
+import hello.datajpa.repository.MemberRepository;
+import hello.datajpa.repository.TeamRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/*
+    무효화는 커밋 후에 일어나기 때문에 테스트 트랜잭션 없이 저장할 때마다 커밋한다.
+ */
+@SpringBootTest
+class MemberUsernameCacheTest {
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    TeamRepository teamRepository;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Test
+    void readThrough() {
+        //given
+        memberRepository.save(new Member("usernameCache", 10, null));
+
+        //when
+        QueryCounter first = QueryCountHolder.start();
+        List<MemberDto> firstResult;
+        try {
+            firstResult = memberRepository.findMemberDtoByUsernameCached("usernameCache");
+        } finally {
+            QueryCountHolder.stop();
+        }
+        QueryCounter second = QueryCountHolder.start();
+        List<MemberDto> secondResult;
+        try {
+            secondResult = memberRepository.findMemberDtoByUsernameCached("usernameCache");
+        } finally {
+            QueryCountHolder.stop();
+        }
+
+        //then
+        assertThat(firstResult).extracting("username").containsExactly("usernameCache");
+        assertThat(secondResult).isEqualTo(firstResult);
+        assertThat(first.getCount()).isEqualTo(1);
+        assertThat(second.getCount()).isEqualTo(0);
+    }
+
+    @Test
+    void invalidateOnRename() {
+        //given
+        Member member = memberRepository.save(new Member("beforeRename", 10, null));
+        assertThat(memberRepository.findMemberDtoByUsernameCached("beforeRename")).hasSize(1);
+        assertThat(memberRepository.findMemberDtoByUsernameCached("afterRename")).isEmpty();
+
+        //when
+        memberRepository.updateWithRetry(member.getId(), found -> {
+            found.setUsername("afterRename");
+            return null;
+        });
+
+        //then
+        assertThat(memberRepository.findMemberDtoByUsernameCached("beforeRename")).isEmpty();
+        assertThat(memberRepository.findMemberDtoByUsernameCached("afterRename"))
+                .extracting("id").containsExactly(member.getId());
+    }
+
+    @Test
+    void noPhantomAfterRollback() {
+        //given 커밋 전에 조회해도 커밋되지 않은 회원은 캐시되지 않는다.
+        transactionTemplate.executeWithoutResult(status -> {
+            memberRepository.saveAndFlush(new Member("rolledBack", 10, null));
+            assertThat(memberRepository.findMemberDtoByUsernameCached("rolledBack")).isEmpty();
+            status.setRollbackOnly();
+        });
+
+        //when
+        List<MemberDto> result = memberRepository.findMemberDtoByUsernameCached("rolledBack");
+
+        //then
+        assertThat(result).isEmpty();
+    }
+
+    @Test
+    void invalidateOnTeamRename() {
+        //given
+        Team team = teamRepository.save(new Team("beforeTeamRename"));
+        memberRepository.save(new Member("teamRename", 10, team));
+        assertThat(memberRepository.findMemberDtoByUsernameCached("teamRename"))
+                .extracting("teamName").containsExactly("beforeTeamRename");
+
+        //when
+        transactionTemplate.executeWithoutResult(status ->
+                teamRepository.findById(team.getId()).orElseThrow().setName("afterTeamRename"));
+
+        //then
+        assertThat(memberRepository.findMemberDtoByUsernameCached("teamRename"))
+                .extracting("teamName").containsExactly("afterTeamRename");
+    }
+}
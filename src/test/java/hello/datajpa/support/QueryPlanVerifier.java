@@ -0,0 +1,54 @@
+package hello.datajpa.support;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+    블록 안에서 실행된 select 를 H2 EXPLAIN 으로 확인해서
+    maxScanRows 보다 row 가 많은 테이블을 풀 스캔하는 쿼리를 찾는다.
+
+    List<String> violations = verifier.tableScans(() -> memberRepository.findByAge(10, pageable));
+ */
+public class QueryPlanVerifier {
+    //H2 실행 계획에서 인덱스 없이 읽는 테이블: /* PUBLIC.MEMBER.tableScan */
+    private static final Pattern TABLE_SCAN = Pattern.compile("/\\* (\\w+)\\.(\\w+)\\.tableScan");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long maxScanRows;
+
+    public QueryPlanVerifier(JdbcTemplate jdbcTemplate, long maxScanRows) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxScanRows = maxScanRows;
+    }
+
+    public List<String> tableScans(Supplier<?> queries) {
+        QueryCounter counter = QueryCountHolder.start();
+        try {
+            queries.get();
+        } finally {
+            QueryCountHolder.stop();
+        }
+
+        List<String> violations = new ArrayList<>();
+        for (String sql : counter.getExecutedSql()) {
+            if (!sql.trim().toLowerCase().startsWith("select")) {
+                continue;
+            }
+            String plan = String.join("\n", jdbcTemplate.queryForList("explain " + sql, String.class));
+            Matcher matcher = TABLE_SCAN.matcher(plan);
+            while (matcher.find()) {
+                String table = matcher.group(1) + "." + matcher.group(2);
+                Long rows = jdbcTemplate.queryForObject("select count(*) from " + table, Long.class);
+                if (rows != null && rows > maxScanRows) {
+                    violations.add(table + " (" + rows + " rows) <- " + plan);
+                }
+            }
+        }
+        return violations;
+    }
+}
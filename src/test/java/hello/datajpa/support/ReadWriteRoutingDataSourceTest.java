@@ -0,0 +1,93 @@
+package hello.datajpa.support;
+
+import hello.datajpa.support.ReadWriteRoutingDataSource.LoadBalance;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/*
+    메모리 H2 세개에 각자 이름을 넣어두고 어디로 라우팅됐는지 확인한다.
+    트랜잭션 매니저 대신 TransactionSynchronizationManager 에 readOnly 를 직접 표시한다.
+ */
+class ReadWriteRoutingDataSourceTest {
+    DataSource primary = h2("primary");
+    DataSource replica1 = h2("replica1");
+    DataSource replica2 = h2("replica2");
+
+    @AfterEach
+    void clear() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void writeGoesToPrimary() {
+        //given
+        ReadWriteRoutingDataSource dataSource = new ReadWriteRoutingDataSource(primary, List.of(replica1, replica2),
+                LoadBalance.ROUND_ROBIN, Duration.ZERO);
+
+        //when
+        transaction(false);
+        String name = name(dataSource);
+
+        //then
+        assertThat(name).isEqualTo("primary");
+    }
+
+    @Test
+    void readOnlyRoundRobin() {
+        //given
+        ReadWriteRoutingDataSource dataSource = new ReadWriteRoutingDataSource(primary, List.of(replica1, replica2),
+                LoadBalance.ROUND_ROBIN, Duration.ZERO);
+
+        //when
+        transaction(true);
+        List<String> names = List.of(name(dataSource), name(dataSource), name(dataSource));
+
+        //then
+        assertThat(names).containsExactly("replica1", "replica2", "replica1");
+    }
+
+    @Test
+    void readYourWritesWithinLagTolerance() {
+        //given
+        ReadWriteRoutingDataSource dataSource = new ReadWriteRoutingDataSource(primary, List.of(replica1),
+                LoadBalance.LEAST_LOADED, Duration.ofMinutes(1));
+
+        //when
+        transaction(false);
+        name(dataSource);
+        transaction(true);
+        String name = name(dataSource);
+
+        //then
+        assertThat(name).isEqualTo("primary");
+    }
+
+    private static void transaction(boolean readOnly) {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    private static String name(DataSource dataSource) {
+        return new JdbcTemplate(dataSource).queryForObject("select name from marker", String.class);
+    }
+
+    private static DataSource h2(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table if not exists marker(name varchar(20))");
+        jdbcTemplate.update("delete from marker");
+        jdbcTemplate.update("insert into marker values (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,75 @@
+package hello.datajpa.support;
+
+import hello.datajpa.entity.Member;
+import hello.datajpa.repository.MemberRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.Rollback;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+@Rollback(value = false)
+class RepositoryMetricsTest {
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Test
+    void repositoryInvocationMetrics() {
+        //given
+        memberRepository.save(new Member("metricsA", 10, null));
+        memberRepository.save(new Member("metricsB", 10, null));
+        em.flush();
+        em.clear();
+
+        //when
+        memberRepository.findByUsernameAndAgeGreaterThan("metricsA", 5);
+
+        //then
+        Timer timer = meterRegistry.find("repository.invocations")
+                .tags("repository", "MemberRepository", "method", "findByUsernameAndAgeGreaterThan", "state", "success")
+                .timer();
+        DistributionSummary rows = meterRegistry.find("repository.rows")
+                .tags("repository", "MemberRepository", "method", "findByUsernameAndAgeGreaterThan")
+                .summary();
+        DistributionSummary entitiesLoaded = meterRegistry.find("repository.entities.loaded")
+                .tags("repository", "MemberRepository", "method", "findByUsernameAndAgeGreaterThan")
+                .summary();
+
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isGreaterThanOrEqualTo(1);
+        assertThat(rows.max()).isGreaterThanOrEqualTo(1);
+        assertThat(entitiesLoaded.max()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void primitiveArrayRows() {
+        //given
+        memberRepository.save(new Member("metricsArray", 10, null));
+
+        //when
+        long[] ids = memberRepository.findAllIds();
+
+        //then 배열 하나가 아니라 배열 길이만큼 기록한다
+        DistributionSummary rows = meterRegistry.find("repository.rows")
+                .tags("repository", "MemberRepository", "method", "findAllIds")
+                .summary();
+        assertThat(rows).isNotNull();
+        assertThat(rows.max()).isEqualTo(ids.length);
+    }
+}
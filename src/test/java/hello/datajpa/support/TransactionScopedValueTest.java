@@ -0,0 +1,52 @@
+package hello.datajpa.support;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+
+/*
+    스프링 컨텍스트 없이 메모리 H2 와 DataSourceTransactionManager 로 트랜잭션 경계만 확인한다.
+ */
+class TransactionScopedValueTest {
+    DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(
+            new DriverManagerDataSource("jdbc:h2:mem:scoped-value;DB_CLOSE_DELAY=-1", "sa", ""));
+    TransactionScopedValue<Object> value = new TransactionScopedValue<>(Object::new);
+
+    @Test
+    void oncePerTransaction() {
+        //when
+        Object[] values = new TransactionTemplate(transactionManager).execute(status -> new Object[]{value.get(), value.get()});
+
+        //then
+        assertThat(values[0]).isSameAs(values[1]);
+        assertThat(value.get()).isNotSameAs(values[0]);
+    }
+
+    @Test
+    void requiresNewGetsItsOwnValue() {
+        //given
+        TransactionTemplate requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        AtomicReference<Object> inner = new AtomicReference<>();
+
+        //when
+        Object[] outer = new TransactionTemplate(transactionManager).execute(status -> {
+            Object before = value.get();
+            requiresNew.executeWithoutResult(innerStatus -> {
+                inner.set(value.get());
+                assertThat(value.get()).isSameAs(inner.get());
+            });
+            return new Object[]{before, value.get()};
+        });
+
+        //then 안쪽 트랜잭션은 자기 값을 쓰고 끝나면 바깥 값이 다시 보인다
+        assertThat(inner.get()).isNotSameAs(outer[0]);
+        assertThat(outer[1]).isSameAs(outer[0]);
+    }
+}